@@ -2,6 +2,7 @@ package com.project.uber.Uber;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 		description = "JWT Authorization header using the Bearer scheme"
 )
 @SpringBootApplication
+@EnableScheduling
 public class UberApplication {
 
 	public static void main(String[] args) {
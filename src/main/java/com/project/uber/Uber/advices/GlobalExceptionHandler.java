@@ -1,7 +1,9 @@
 package com.project.uber.Uber.advices;
 
+import com.project.uber.Uber.exceptions.BadRequestException;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
 import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.exceptions.ServiceUnavailableException;
 import io.jsonwebtoken.JwtException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -53,6 +55,28 @@ public class GlobalExceptionHandler {
         return buildErrorResponseEntity(apiError);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceUnavailableException(ServiceUnavailableException exception){
+        ApiError apiError = new ApiError
+                .ApiErrorBuilder()
+                .setMessage(exception.getLocalizedMessage())
+                .setStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiResponse<?>> handleBadRequestException(BadRequestException exception){
+        ApiError apiError = new ApiError
+                .ApiErrorBuilder()
+                .setStatus(HttpStatus.BAD_REQUEST)
+                .setMessage(exception.getLocalizedMessage())
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<?>> handleMethodArgumentNotValidException(MethodArgumentNotValidException exception){
         List<String> errors = exception
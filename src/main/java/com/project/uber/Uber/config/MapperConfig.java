@@ -1,29 +0,0 @@
-package com.project.uber.Uber.config;
-
-import com.project.uber.Uber.dto.PointDto;
-import com.project.uber.Uber.utils.GeometryUtil;
-import org.locationtech.jts.geom.Point;
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class MapperConfig {
-
-    @Bean
-    public ModelMapper modelMapper(){
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.typeMap(PointDto.class, Point.class).setConverter(context -> {
-            PointDto pointDto = context.getSource();
-            return GeometryUtil.createPoint(pointDto);
-        });
-
-        modelMapper.typeMap(Point.class, PointDto.class).setConverter(mappingContext -> {
-            Point point = mappingContext.getSource();
-            double[] coordinates = {point.getX(),point.getY()};
-            return new PointDto(coordinates);
-        });
-
-        return modelMapper;
-    }
-}
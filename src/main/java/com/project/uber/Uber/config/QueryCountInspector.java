@@ -0,0 +1,25 @@
+package com.project.uber.Uber.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// counts the SQL statements Hibernate prepares on the current thread; QueryCountFilter scopes the count to a request
+public class QueryCountInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -1,5 +1,8 @@
 package com.project.uber.Uber.config;
 
+import com.project.uber.Uber.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,9 +13,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class SecurityConfig {
 
-    @Bean
-    PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                    @Value("${password.bcrypt.strength}") int strength,
+                                    @Value("${password.hashing.threads}") int threads,
+                                    @Value("${password.hashing.queueCapacity}") int queueCapacity,
+                                    @Value("${password.hashing.maxWaitInMillis}") long maxWaitInMillis){
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, maxWaitInMillis, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,44 @@
+package com.project.uber.Uber.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider osrmConnectionProvider(@Value("${osrm.maxConnections}") int maxConnections,
+                                              @Value("${osrm.maxPendingRequests}") int maxPendingRequests,
+                                              @Value("${osrm.pendingAcquireTimeoutInMillis}") long pendingAcquireTimeoutInMillis) {
+        // maxConnections caps in-flight OSRM calls, anything beyond maxPendingRequests is rejected immediately
+        return ConnectionProvider.builder("osrm")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPendingRequests)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutInMillis))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    WebClient osrmWebClient(ConnectionProvider osrmConnectionProvider,
+                            @Value("${osrm.baseUrl}") String baseUrl,
+                            @Value("${osrm.connectTimeoutInMillis}") int connectTimeoutInMillis,
+                            @Value("${osrm.responseTimeoutInMillis}") long responseTimeoutInMillis) {
+        HttpClient httpClient = HttpClient.create(osrmConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutInMillis)
+                .responseTimeout(Duration.ofMillis(responseTimeoutInMillis));
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
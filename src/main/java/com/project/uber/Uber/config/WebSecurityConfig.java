@@ -1,6 +1,7 @@
 package com.project.uber.Uber.config;
 
 import com.project.uber.Uber.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -29,7 +30,10 @@ public class WebSecurityConfig {
 
             // actuator + auth
             "/actuator/**",
-            "/auth/**"
+            "/auth/**",
+
+            // local OSRM stub, only mapped under the osrm-stub profile
+            "/osrm-stub/**"
     };
 
     private final JwtAuthFilter jwtAuthFilter;
@@ -45,6 +49,8 @@ public class WebSecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // SSE streams complete on an async dispatch that carries no JWT; the request was authorized on the way in
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(AUTH_WHITELIST).permitAll()
                         .anyRequest().authenticated()
                 ).addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
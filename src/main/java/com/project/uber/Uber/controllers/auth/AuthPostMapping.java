@@ -113,32 +113,57 @@ public class AuthPostMapping {
     @PostMapping(path = "/login")
     public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequestDto, HttpServletResponse httpServletResponse){
         String[] tokens = authService.login(loginRequestDto);
-        Cookie cookie = new Cookie("refreshToken", tokens[1]);
-        cookie.setHttpOnly(true);
-        cookie.setSecure(deployment.equals("production"));
-        cookie.setPath("/auth/refresh");
-        httpServletResponse.addCookie(cookie);
+        httpServletResponse.addCookie(refreshTokenCookie(tokens[1], -1));
 
         return ResponseEntity.ok(new LoginResponseDto(tokens[0]));
     }
 
     @Operation(
             summary = "Refresh access token using refresh cookie",
-            description = "Uses the httpOnly refresh token cookie (set at /auth/login) to issue a new access token. Note: httpOnly cookies cannot be set via Swagger UI browser requests; use curl/postman or a non-httpOnly endpoint for testing in the UI."
+            description = "Uses the httpOnly refresh token cookie (set at /auth/login) to issue a new access token. The refresh token is rotated: the cookie is replaced and the old token can no longer be used. Presenting an already used refresh token revokes the whole session. Note: httpOnly cookies cannot be set via Swagger UI browser requests; use curl/postman or a non-httpOnly endpoint for testing in the UI."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "New access token issued",
+            @ApiResponse(responseCode = "200", description = "New access token issued and refresh cookie rotated",
                     content = @Content(schema = @Schema(implementation = LoginResponseDto.class))),
-            @ApiResponse(responseCode = "401", description = "Refresh token missing or invalid")
+            @ApiResponse(responseCode = "401", description = "Refresh cookie missing, invalid, already used or revoked")
     })
     @PostMapping(path = "/refresh")
-    public ResponseEntity<LoginResponseDto> refreshToken(HttpServletRequest httpServletRequest){
-        String refreshToken = Arrays
+    public ResponseEntity<LoginResponseDto> refreshToken(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse){
+        String[] tokens = authService.refreshToken(getRefreshToken(httpServletRequest));
+        httpServletResponse.addCookie(refreshTokenCookie(tokens[1], -1));
+        return ResponseEntity.ok(new LoginResponseDto(tokens[0]));
+    }
+
+    @Operation(
+            summary = "Logout",
+            description = "Revokes the session of the refresh token cookie. The refresh token and every access token issued in the session stop working immediately."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Session revoked and refresh cookie cleared"),
+            @ApiResponse(responseCode = "401", description = "Refresh cookie missing or invalid")
+    })
+    @PostMapping(path = "/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse){
+        authService.logout(getRefreshToken(httpServletRequest));
+        httpServletResponse.addCookie(refreshTokenCookie("", 0));
+        return ResponseEntity.noContent().build();
+    }
+
+    private String getRefreshToken(HttpServletRequest httpServletRequest) {
+        return Arrays
                 .stream(httpServletRequest.getCookies() != null ? httpServletRequest.getCookies() : new Cookie[]{})
                 .filter(cookie -> cookie.getName().equals("refreshToken"))
                 .findFirst()
                 .map(cookie -> cookie.getValue())
                 .orElseThrow(() -> new AuthenticationCredentialsNotFoundException("Refresh token not found"));
-        return ResponseEntity.ok(authService.refreshToken(refreshToken));
+    }
+
+    private Cookie refreshTokenCookie(String value, int maxAge) {
+        Cookie cookie = new Cookie("refreshToken", value);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(deployment.equals("production"));
+        cookie.setPath("/auth");
+        cookie.setMaxAge(maxAge);
+        return cookie;
     }
 }
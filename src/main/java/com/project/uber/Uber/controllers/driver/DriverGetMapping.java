@@ -11,6 +11,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import com.project.uber.Uber.dto.DriverDto;
 import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.services.DriverService;
 
 import org.springframework.data.domain.Page;
@@ -77,4 +78,26 @@ public class DriverGetMapping {
         Page<DriverRideDto> rides = driverService.getAllMyRides(pageRequest);
         return ResponseEntity.ok(rides.getContent());
     }
+
+    @Operation(
+            summary = "Get driver's ride history (cursor-paginated)",
+            description = "Fetches the logged-in driver's rides newest first. Pass the returned nextCursor to get the following page; "
+                    + "response time does not grow with how far back the history goes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of rides retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = RideHistoryDto.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid JWT token"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/getMyRideHistory")
+    public ResponseEntity<RideHistoryDto<DriverRideDto>> getMyRideHistory(
+            @Parameter(description = "Cursor returned by the previous page; omit for the latest rides")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Number of rides per page, capped by the server", example = "20")
+            @RequestParam(required = false) Integer size) {
+
+        return ResponseEntity.ok(driverService.getMyRideHistory(cursor, size));
+    }
 }
@@ -11,9 +11,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.PointDto;
 import com.project.uber.Uber.dto.RatingDto;
 import com.project.uber.Uber.dto.RideStartDto;
 import com.project.uber.Uber.dto.RiderDto;
+import com.project.uber.Uber.services.DriverLocationService;
 import com.project.uber.Uber.services.DriverService;
 import com.project.uber.Uber.services.RatingManagementService;
 
@@ -30,10 +32,12 @@ import org.springframework.web.bind.annotation.*;
 public class DriverPostMapping {
 
     private final DriverService driverService;
+    private final DriverLocationService driverLocationService;
 
     // keep RatingManagementService in constructor if your app wires it elsewhere
-    public DriverPostMapping(DriverService driverService, RatingManagementService ratingManagementService) {
+    public DriverPostMapping(DriverService driverService, RatingManagementService ratingManagementService, DriverLocationService driverLocationService) {
         this.driverService = driverService;
+        this.driverLocationService = driverLocationService;
     }
 
     @Operation(
@@ -53,6 +57,23 @@ public class DriverPostMapping {
         return ResponseEntity.ok(driverService.acceptRide(rideRequestId));
     }
 
+    @Operation(
+            summary = "Decline a ride offer",
+            description = "Driver declines a ride request currently offered to them; the offer moves on to the next candidate."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Offer declined"),
+            @ApiResponse(responseCode = "409", description = "Ride request is not offered to this driver"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT")
+    })
+    @PostMapping("/declineRide/{rideRequestId}")
+    public ResponseEntity<Void> declineRide(
+            @Parameter(description = "ID of the ride request to decline", required = true, example = "123")
+            @PathVariable Long rideRequestId) {
+        driverService.declineRide(rideRequestId);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(
             summary = "Start a ride",
             description = "Mark a ride as started. Supply optional start details (e.g., startTimestamp, initialKm) in the body."
@@ -141,4 +162,26 @@ public class DriverPostMapping {
 
         return ResponseEntity.ok(driverService.rateRider(rideId, ratingDto.getRating()));
     }
+
+    @Operation(
+            summary = "Update current location",
+            description = "Reports the driver's live position. Meant to be called several times per second; updates are coalesced per driver and persisted in periodic batches."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Location accepted"),
+            @ApiResponse(responseCode = "409", description = "Invalid coordinates"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT")
+    })
+    @PostMapping("/updateLocation")
+    public ResponseEntity<Void> updateLocation(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Current location as a GeoJSON point",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = PointDto.class),
+                            examples = @ExampleObject(value = "{\"coordinates\":[81.6337,21.2379],\"type\":\"Point\"}"))
+            )
+            @Valid @RequestBody PointDto currentLocation) {
+        driverLocationService.updateCurrentLocation(currentLocation);
+        return ResponseEntity.accepted().build();
+    }
 }
@@ -0,0 +1,62 @@
+package com.project.uber.Uber.controllers.osrm;
+
+import com.project.uber.Uber.utils.GeometryUtil;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline stand-in for the OSRM route and table endpoints, for benchmarking the client without network access.
+ * Start with the osrm-stub profile and point osrm.baseUrl at http://localhost:8080/osrm-stub.
+ */
+@Hidden
+@RestController
+@Profile("osrm-stub")
+@RequestMapping("/osrm-stub")
+public class OsrmStubController {
+
+    private static final double DETOUR_FACTOR = 1.3;
+
+    @GetMapping(path = "/route/v1/driving/*")
+    public Map<String, Object> route(HttpServletRequest request) {
+        double[][] points = coordinates(request);
+        return Map.of("code", "Ok",
+                "routes", List.of(Map.of("distance", roadDistance(points[0], points[1]))));
+    }
+
+    @GetMapping(path = "/table/v1/driving/*")
+    public Map<String, Object> table(HttpServletRequest request) {
+        double[][] points = coordinates(request);
+        List<List<Double>> distances = new ArrayList<>();
+        for (double[] source : points) {
+            List<Double> row = new ArrayList<>(points.length);
+            for (double[] destination : points) row.add(roadDistance(source, destination));
+            distances.add(row);
+        }
+        // OSRM honours sources=0, the stub always answers every row of which the client only reads the first
+        return Map.of("code", "Ok", "distances", distances);
+    }
+
+    // the raw URI is used because the servlet path strips everything after ';' as matrix parameters
+    private static double[][] coordinates(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String[] pairs = uri.substring(uri.lastIndexOf('/') + 1).split(";");
+        double[][] points = new double[pairs.length][];
+        for (int i = 0; i < pairs.length; i++) {
+            String[] lonLat = pairs[i].split(",");
+            points[i] = new double[]{Double.parseDouble(lonLat[0]), Double.parseDouble(lonLat[1])};
+        }
+        return points;
+    }
+
+    private static double roadDistance(double[] src, double[] des) {
+        return GeometryUtil.distanceInMeters(src[0], src[1], des[0], des[1]) * DETOUR_FACTOR;
+    }
+}
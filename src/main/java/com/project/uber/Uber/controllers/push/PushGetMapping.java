@@ -0,0 +1,47 @@
+package com.project.uber.Uber.controllers.push;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import com.project.uber.Uber.dto.PushEventDto;
+import com.project.uber.Uber.services.PushGatewayService;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/push")
+@Secured({"ROLE_RIDER", "ROLE_DRIVER"})
+@Tag(name = "Push Events", description = "Server-sent event stream of ride offers and ride status changes")
+@SecurityRequirement(name = "bearerAuth")
+public class PushGetMapping {
+
+    private final PushGatewayService pushGatewayService;
+
+    public PushGetMapping(PushGatewayService pushGatewayService) {
+        this.pushGatewayService = pushGatewayService;
+    }
+
+    @Operation(
+            summary = "Open the event stream",
+            description = "Keeps a server-sent event connection open for the logged-in user. Drivers receive rideOffer events, "
+                    + "riders receive rideAccepted (with the OTP) and both receive rideStatus events. Email notifications are still sent."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid JWT token"),
+            @ApiResponse(responseCode = "503", description = "Connection limit of this node reached, retry later")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<PushEventDto>> stream() {
+        return pushGatewayService.connect();
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.uber.Uber.controllers.rider;
 
 import com.project.uber.Uber.dto.RideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.dto.RiderDto;
 import com.project.uber.Uber.services.RiderService;
 import org.springframework.data.domain.Page;
@@ -76,4 +77,26 @@ public class RiderGetMapping {
         Page<RideDto> rides = riderService.getAllMyRides(pageRequest);
         return ResponseEntity.ok(rides.getContent());
     }
+
+    @Operation(
+            summary = "Get rider's ride history (cursor-paginated)",
+            description = "Fetches the logged-in rider's rides newest first. Pass the returned nextCursor to get the following page; "
+                    + "response time does not grow with how far back the history goes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of rides retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = RideHistoryDto.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid JWT token"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/getMyRideHistory")
+    public ResponseEntity<RideHistoryDto<RideDto>> getMyRideHistory(
+            @Parameter(description = "Cursor returned by the previous page; omit for the latest rides")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Number of rides per page, capped by the server", example = "20")
+            @RequestParam(required = false) Integer size) {
+
+        return ResponseEntity.ok(riderService.getMyRideHistory(cursor, size));
+    }
 }
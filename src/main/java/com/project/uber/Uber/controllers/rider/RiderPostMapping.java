@@ -11,9 +11,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import com.project.uber.Uber.dto.DriverDto;
+import com.project.uber.Uber.dto.FareQuoteDto;
 import com.project.uber.Uber.dto.RatingDto;
 import com.project.uber.Uber.dto.RideDto;
 import com.project.uber.Uber.dto.RideRequestDto;
+import com.project.uber.Uber.services.FareQuoteService;
 import com.project.uber.Uber.services.RatingManagementService;
 import com.project.uber.Uber.services.RiderService;
 
@@ -30,9 +32,35 @@ import org.springframework.web.bind.annotation.*;
 public class RiderPostMapping {
 
     private final RiderService riderService;
+    private final FareQuoteService fareQuoteService;
 
-    public RiderPostMapping(RiderService riderService, RatingManagementService ratingManagementService) {
+    public RiderPostMapping(RiderService riderService, RatingManagementService ratingManagementService, FareQuoteService fareQuoteService) {
         this.riderService = riderService;
+        this.fareQuoteService = fareQuoteService;
+    }
+
+    @Operation(
+            summary = "Get a fare quote",
+            description = "Calculates the fare for a pickup/drop-off pair without creating a ride request. " +
+                    "The returned quote token can be sent with requestRide before it expires to lock in the fare.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Pickup and drop-off locations",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = FareQuoteDto.class),
+                            examples = @ExampleObject(value = "{\"pickUpLocation\":{\"coordinates\":[81.6337,21.2379]},\"dropOffLocation\":{\"coordinates\":[81.6296,21.2514]}}")
+                    )
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fare quote calculated",
+                    content = @Content(schema = @Schema(implementation = FareQuoteDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT")
+    })
+    @PostMapping("/fareQuote")
+    public ResponseEntity<FareQuoteDto> fareQuote(@Valid @RequestBody FareQuoteDto fareQuoteDto) {
+        return ResponseEntity.ok(fareQuoteService.getFareQuote(fareQuoteDto));
     }
 
     @Operation(
@@ -2,8 +2,10 @@ package com.project.uber.Uber.dto;
 
 import com.project.uber.Uber.entities.enums.PaymentMethod;
 import com.project.uber.Uber.entities.enums.RideStatus;
+import com.project.uber.Uber.utils.GeometryUtil;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import org.locationtech.jts.geom.Point;
 
 import java.time.LocalDateTime;
 
@@ -64,6 +66,26 @@ public class DriverRideDto {
         this.endedAt = endedAt;
     }
 
+    // flat constructor for JPQL constructor expressions, see RideRepository; user roles are not projected
+    public DriverRideDto(Long id, Point pickUpLocation, Point dropOffLocation, LocalDateTime createdTime,
+                         PaymentMethod paymentMethod, RideStatus status, Double fare,
+                         LocalDateTime startedAt, LocalDateTime endedAt,
+                         Long riderId, Double riderRating, String riderName, String riderEmail,
+                         Long driverId, Double driverRating, Boolean driverAvailable, Long driverVehicleId,
+                         String driverName, String driverEmail) {
+        this.id = id;
+        this.pickUpLocation = GeometryUtil.createPointDto(pickUpLocation);
+        this.dropOffLocation = GeometryUtil.createPointDto(dropOffLocation);
+        this.createdTime = createdTime;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.fare = fare;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.rider = new RiderDto(new UserDto(riderName, riderEmail, null), riderRating, riderId);
+        this.driver = new DriverDto(driverId, new UserDto(driverName, driverEmail, null), driverRating, driverAvailable, driverVehicleId);
+    }
+
     public Long getId() {
         return id;
     }
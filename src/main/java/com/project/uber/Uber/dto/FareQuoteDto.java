@@ -0,0 +1,78 @@
+package com.project.uber.Uber.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+@Schema(description = "Fare quote for a pickup/drop-off pair. The quote token can be passed to requestRide until it expires.")
+public class FareQuoteDto {
+
+    @Schema(description = "Pickup location coordinates and type", required = true)
+    @NotNull
+    private PointDto pickUpLocation;
+
+    @Schema(description = "Drop-off location coordinates and type", required = true)
+    @NotNull
+    private PointDto dropOffLocation;
+
+    @Schema(description = "Quoted fare amount (in INR)", example = "150.0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Double fare;
+
+    @Schema(description = "Signed token that locks in the quoted fare", accessMode = Schema.AccessMode.READ_ONLY)
+    private String quoteToken;
+
+    @Schema(description = "Instant after which the quote token is no longer accepted", example = "2025-11-04T10:12:00Z", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant expiresAt;
+
+    public FareQuoteDto() {
+    }
+
+    public FareQuoteDto(PointDto pickUpLocation, PointDto dropOffLocation, Double fare, String quoteToken, Instant expiresAt) {
+        this.pickUpLocation = pickUpLocation;
+        this.dropOffLocation = dropOffLocation;
+        this.fare = fare;
+        this.quoteToken = quoteToken;
+        this.expiresAt = expiresAt;
+    }
+
+    public PointDto getPickUpLocation() {
+        return pickUpLocation;
+    }
+
+    public void setPickUpLocation(PointDto pickUpLocation) {
+        this.pickUpLocation = pickUpLocation;
+    }
+
+    public PointDto getDropOffLocation() {
+        return dropOffLocation;
+    }
+
+    public void setDropOffLocation(PointDto dropOffLocation) {
+        this.dropOffLocation = dropOffLocation;
+    }
+
+    public Double getFare() {
+        return fare;
+    }
+
+    public void setFare(Double fare) {
+        this.fare = fare;
+    }
+
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
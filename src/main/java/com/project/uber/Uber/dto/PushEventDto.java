@@ -0,0 +1,74 @@
+package com.project.uber.Uber.dto;
+
+import com.project.uber.Uber.entities.enums.RideStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Payload of a server-sent event pushed to a connected rider or driver")
+public class PushEventDto {
+
+    @Schema(description = "ID of the ride request the event refers to", example = "42")
+    private Long rideRequestId;
+
+    @Schema(description = "ID of the ride, once the request has been accepted", example = "501")
+    private Long rideId;
+
+    @Schema(description = "Ride status after the change", example = "CONFIRMED | ONGOING | ENDED | CANCELLED")
+    private RideStatus status;
+
+    @Schema(description = "Ride OTP, only sent to the rider when a driver accepts", example = "4821")
+    private String otp;
+
+    @Schema(description = "Human readable description of the event")
+    private String message;
+
+    public PushEventDto() {
+    }
+
+    public PushEventDto(Long rideRequestId, Long rideId, RideStatus status, String otp, String message) {
+        this.rideRequestId = rideRequestId;
+        this.rideId = rideId;
+        this.status = status;
+        this.otp = otp;
+        this.message = message;
+    }
+
+    public Long getRideRequestId() {
+        return rideRequestId;
+    }
+
+    public void setRideRequestId(Long rideRequestId) {
+        this.rideRequestId = rideRequestId;
+    }
+
+    public Long getRideId() {
+        return rideId;
+    }
+
+    public void setRideId(Long rideId) {
+        this.rideId = rideId;
+    }
+
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RideStatus status) {
+        this.status = status;
+    }
+
+    public String getOtp() {
+        return otp;
+    }
+
+    public void setOtp(String otp) {
+        this.otp = otp;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
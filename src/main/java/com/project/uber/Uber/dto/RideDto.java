@@ -2,8 +2,10 @@ package com.project.uber.Uber.dto;
 
 import com.project.uber.Uber.entities.enums.PaymentMethod;
 import com.project.uber.Uber.entities.enums.RideStatus;
+import com.project.uber.Uber.utils.GeometryUtil;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import org.locationtech.jts.geom.Point;
 
 import java.time.LocalDateTime;
 
@@ -68,6 +70,27 @@ public class RideDto {
         this.otp = otp;
     }
 
+    // flat constructor for JPQL constructor expressions, see RideRepository; user roles are not projected
+    public RideDto(Long id, Point pickUpLocation, Point dropOffLocation, LocalDateTime createdTime,
+                   PaymentMethod paymentMethod, RideStatus status, Double fare, String otp,
+                   LocalDateTime startedAt, LocalDateTime endedAt,
+                   Long riderId, Double riderRating, String riderName, String riderEmail,
+                   Long driverId, Double driverRating, Boolean driverAvailable, Long driverVehicleId,
+                   String driverName, String driverEmail) {
+        this.id = id;
+        this.pickUpLocation = GeometryUtil.createPointDto(pickUpLocation);
+        this.dropOffLocation = GeometryUtil.createPointDto(dropOffLocation);
+        this.createdTime = createdTime;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.fare = fare;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.rider = new RiderDto(new UserDto(riderName, riderEmail, null), riderRating, riderId);
+        this.driver = new DriverDto(driverId, new UserDto(driverName, driverEmail, null), driverRating, driverAvailable, driverVehicleId);
+        this.otp = otp;
+    }
+
     public Long getId() {
         return id;
     }
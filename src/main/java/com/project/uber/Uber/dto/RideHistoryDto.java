@@ -0,0 +1,51 @@
+package com.project.uber.Uber.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of ride history, newest first. Pass nextCursor back to fetch the following page.")
+public class RideHistoryDto<T> {
+
+    @Schema(description = "Rides on this page, ordered by creation time descending")
+    private List<T> rides;
+
+    @Schema(description = "Opaque cursor for the next page, null when there are no more rides", example = "MjAyNS0xMS0wNFQxMDowMjowMHw0NTY")
+    private String nextCursor;
+
+    @Schema(description = "Whether more rides exist after this page", example = "true")
+    private boolean hasNext;
+
+    public RideHistoryDto() {
+    }
+
+    public RideHistoryDto(List<T> rides, String nextCursor, boolean hasNext) {
+        this.rides = rides;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getRides() {
+        return rides;
+    }
+
+    public void setRides(List<T> rides) {
+        this.rides = rides;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
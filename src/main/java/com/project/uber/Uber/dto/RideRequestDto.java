@@ -36,6 +36,9 @@ public class RideRequestDto {
     @Schema(description = "Current status of the ride request", example = "PENDING | ACCEPTED | CANCELLED | COMPLETED")
     private RideRequestStatus status;
 
+    @Schema(description = "Optional fare quote token from /rider/fareQuote; when valid, its fare is used as-is", accessMode = Schema.AccessMode.WRITE_ONLY)
+    private String quoteToken;
+
     public RideRequestDto() {
     }
 
@@ -115,4 +118,12 @@ public class RideRequestDto {
     public void setStatus(RideRequestStatus status) {
         this.status = status;
     }
+
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
 }
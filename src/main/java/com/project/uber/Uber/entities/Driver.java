@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import org.locationtech.jts.geom.Point;
 
 @Entity
@@ -12,6 +14,7 @@ import org.locationtech.jts.geom.Point;
         @Index(name = "idx_driver_vehicle_id", columnList = "vehicleId"),
         @Index(name = "idx_driver_user", columnList = "user_id")
 })
+@DynamicUpdate
 public class Driver {
 
     @Id
@@ -28,6 +31,15 @@ public class Driver {
     @Max(value = 5, message = "Rating cannot be more than 5")
     private Double rating;
 
+    // running aggregates behind rating, only ever changed by an atomic SQL increment
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private double ratingSum;
+
     @NotNull(message = "Availability status is required")
     private Boolean available;
 
@@ -73,6 +85,22 @@ public class Driver {
         this.rating = rating;
     }
 
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(double ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
     public Boolean getAvailable() {
         return available;
     }
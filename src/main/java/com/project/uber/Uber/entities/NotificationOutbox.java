@@ -0,0 +1,191 @@
+package com.project.uber.Uber.entities;
+
+import com.project.uber.Uber.entities.enums.NotificationStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "Recipients are required")
+    @Column(columnDefinition = "TEXT")
+    private String recipients;
+
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @NotNull(message = "Notification status is required")
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    private int attempts;
+
+    @NotNull(message = "Next attempt time is required")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    private LocalDateTime createdTime;
+
+    public NotificationOutbox() {
+    }
+
+    public NotificationOutbox(NotificationOutboxBuilder builder) {
+        this.id = builder.id;
+        this.recipients = builder.recipients;
+        this.subject = builder.subject;
+        this.body = builder.body;
+        this.status = builder.status;
+        this.attempts = builder.attempts;
+        this.nextAttemptAt = builder.nextAttemptAt;
+        this.lastError = builder.lastError;
+        this.createdTime = builder.createdTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipients() {
+        return recipients;
+    }
+
+    public void setRecipients(String recipients) {
+        this.recipients = recipients;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public NotificationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(NotificationStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(LocalDateTime createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public static class NotificationOutboxBuilder{
+        private Long id;
+        private String recipients;
+        private String subject;
+        private String body;
+        private NotificationStatus status;
+        private int attempts;
+        private LocalDateTime nextAttemptAt;
+        private String lastError;
+        private LocalDateTime createdTime;
+
+        public NotificationOutboxBuilder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public NotificationOutboxBuilder recipients(String recipients) {
+            this.recipients = recipients;
+            return this;
+        }
+
+        public NotificationOutboxBuilder subject(String subject) {
+            this.subject = subject;
+            return this;
+        }
+
+        public NotificationOutboxBuilder body(String body) {
+            this.body = body;
+            return this;
+        }
+
+        public NotificationOutboxBuilder status(NotificationStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public NotificationOutboxBuilder attempts(int attempts) {
+            this.attempts = attempts;
+            return this;
+        }
+
+        public NotificationOutboxBuilder nextAttemptAt(LocalDateTime nextAttemptAt) {
+            this.nextAttemptAt = nextAttemptAt;
+            return this;
+        }
+
+        public NotificationOutboxBuilder lastError(String lastError) {
+            this.lastError = lastError;
+            return this;
+        }
+
+        public NotificationOutboxBuilder createdTime(LocalDateTime createdTime) {
+            this.createdTime = createdTime;
+            return this;
+        }
+
+        public NotificationOutbox build() {
+            return new NotificationOutbox(this);
+        }
+    }
+}
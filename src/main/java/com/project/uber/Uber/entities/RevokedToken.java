@@ -0,0 +1,82 @@
+package com.project.uber.Uber.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// id of a revoked refresh token or session; rows are purged once the token would have expired anyway
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+})
+public class RevokedToken {
+
+    @Id
+    private UUID id;
+
+    @NotNull(message = "Expiry time is required")
+    private LocalDateTime expiresAt;
+
+    @NotNull(message = "Revocation time is required")
+    private LocalDateTime revokedAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(RevokedTokenBuilder builder) {
+        this.id = builder.id;
+        this.expiresAt = builder.expiresAt;
+        this.revokedAt = builder.revokedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public static class RevokedTokenBuilder{
+        private UUID id;
+        private LocalDateTime expiresAt;
+        private LocalDateTime revokedAt;
+
+        public RevokedTokenBuilder id(UUID id) {
+            this.id = id;
+            return this;
+        }
+
+        public RevokedTokenBuilder expiresAt(LocalDateTime expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public RevokedTokenBuilder revokedAt(LocalDateTime revokedAt) {
+            this.revokedAt = revokedAt;
+            return this;
+        }
+
+        public RevokedToken build() {
+            return new RevokedToken(this);
+        }
+    }
+}
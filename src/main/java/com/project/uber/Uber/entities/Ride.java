@@ -14,8 +14,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(indexes = {
-        @Index(name = "idx_ride_rider", columnList = "rider_id"),
-        @Index(name = "idx_ride_driver", columnList = "driver_id")
+        @Index(name = "idx_ride_rider_history", columnList = "rider_id, created_time, id"),
+        @Index(name = "idx_ride_driver_history", columnList = "driver_id, created_time, id")
 })
 public class Ride {
 
@@ -4,11 +4,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(indexes = {
         @Index(name = "idx_rider_user", columnList = "user_id")
 })
+@DynamicUpdate
 public class Rider {
 
     @Id
@@ -25,6 +28,15 @@ public class Rider {
     @Max(value = 5, message = "Rating cannot be more than 5")
     private Double rating;
 
+    // running aggregates behind rating, only ever changed by an atomic SQL increment
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private double ratingSum;
+
     private Rider(RiderBuilder builder) {
         this.id = builder.id;
         this.user = builder.user;
@@ -58,6 +70,22 @@ public class Rider {
         this.rating = rating;
     }
 
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(double ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
     public static class RiderBuilder {
         private Long id;
         private User user;
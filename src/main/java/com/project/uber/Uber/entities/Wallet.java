@@ -3,6 +3,7 @@ package com.project.uber.Uber.entities;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -17,20 +18,24 @@ public class Wallet {
     @OneToOne(fetch = FetchType.LAZY, optional = false)
     private User user;
 
+    // paise; only changed through the conditional UPDATEs in WalletServiceImpl
     @NotNull(message = "Balance cannot be null")
     @PositiveOrZero(message = "Balance must be zero or a positive value")
-    private Double balance = 0.0;
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Long balanceInMinorUnits = 0L;
 
-    @OneToMany(mappedBy = "wallet", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    // read-only view of the ledger; never add to it, postings go through WalletTransactionService
+    @OneToMany(mappedBy = "wallet", fetch = FetchType.LAZY)
     private List<WalletTransaction> transactions;
 
     public Wallet() {
     }
 
-    public Wallet(Long id, User user, Double balance, List<WalletTransaction> transactions) {
+    public Wallet(Long id, User user, Long balanceInMinorUnits, List<WalletTransaction> transactions) {
         this.id = id;
         this.user = user;
-        this.balance = balance;
+        this.balanceInMinorUnits = balanceInMinorUnits;
         this.transactions = transactions;
     }
 
@@ -50,12 +55,12 @@ public class Wallet {
         this.user = user;
     }
 
-    public Double getBalance() {
-        return balance;
+    public Long getBalanceInMinorUnits() {
+        return balanceInMinorUnits;
     }
 
-    public void setBalance(Double balance) {
-        this.balance = balance;
+    public void setBalanceInMinorUnits(Long balanceInMinorUnits) {
+        this.balanceInMinorUnits = balanceInMinorUnits;
     }
 
     public List<WalletTransaction> getTransactions() {
@@ -6,10 +6,13 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 
+// append-only ledger row, inserted in batches by WalletTransactionServiceImpl
 @Entity
+@Immutable
 @Table(indexes = {
         @Index(name = "idx_wallet_transaction_wallet", columnList = "wallet_id"),
         @Index(name = "idx_wallet_transaction_ride", columnList = "ride_id")
@@ -0,0 +1,5 @@
+package com.project.uber.Uber.entities.enums;
+
+public enum NotificationStatus {
+    PENDING,SENT,FAILED
+}
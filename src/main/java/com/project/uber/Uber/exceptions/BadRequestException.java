@@ -0,0 +1,10 @@
+package com.project.uber.Uber.exceptions;
+
+public class BadRequestException extends RuntimeException{
+    public BadRequestException() {
+    }
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
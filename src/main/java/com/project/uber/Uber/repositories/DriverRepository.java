@@ -3,12 +3,18 @@ package com.project.uber.Uber.repositories;
 import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.User;
 import org.locationtech.jts.geom.Point;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, Long> {
@@ -28,4 +34,30 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
     List<Driver> findTenNearbyTopRatedDrivers(Point pickUpLocation);
 
     Optional<Driver> findByUser(User user);
+
+    @Query("SELECT d.id FROM Driver d WHERE d.user.id = :userId")
+    Optional<Long> findIdByUserId(Long userId);
+
+    List<DriverLocationView> findByAvailableTrueAndCurrentLocationIsNotNull();
+
+    @EntityGraph(attributePaths = "user")
+    List<Driver> findByIdIn(Collection<Long> driverIds);
+
+    default List<Driver> findAllByIdInOrder(List<Long> driverIds) {
+        if (driverIds.isEmpty()) return List.of();
+        Map<Long, Driver> driversById = findByIdIn(driverIds)
+                .stream()
+                .collect(Collectors.toMap(Driver::getId, Function.identity()));
+        return driverIds
+                .stream()
+                .map(driversById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    interface DriverLocationView {
+        Long getId();
+        Point getCurrentLocation();
+        Double getRating();
+    }
 }
@@ -0,0 +1,12 @@
+package com.project.uber.Uber.repositories;
+
+import com.project.uber.Uber.entities.NotificationOutbox;
+import com.project.uber.Uber.entities.enums.NotificationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    long countByStatus(NotificationStatus status);
+}
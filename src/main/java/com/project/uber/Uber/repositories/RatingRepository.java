@@ -1,19 +1,24 @@
 package com.project.uber.Uber.repositories;
 
-import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.Rating;
 import com.project.uber.Uber.entities.Ride;
-import com.project.uber.Uber.entities.Rider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
-    List<Rating> findByRider(Rider rider);
-    List<Rating> findByDriver(Driver driver);
-
     Optional<Rating> findByRide(Ride ride);
+
+    // 0.0 marks a side that has not been rated yet, so each side can only be set once
+    @Modifying
+    @Query("UPDATE Rating r SET r.driverRating = :rating WHERE r.id = :id AND r.driverRating = 0")
+    int setDriverRatingIfUnrated(Long id, Double rating);
+
+    @Modifying
+    @Query("UPDATE Rating r SET r.riderRating = :rating WHERE r.id = :id AND r.riderRating = 0")
+    int setRiderRatingIfUnrated(Long id, Double rating);
 }
@@ -1,16 +1,74 @@
 package com.project.uber.Uber.repositories;
 
+import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.RideDto;
 import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.Ride;
 import com.project.uber.Uber.entities.Rider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface RideRepository extends JpaRepository<Ride,Long> {
     Page<Ride> findByRider(Rider rider, Pageable pageRequest);
 
     Page<Ride> findByDriver(Driver driver, Pageable pageRequest);
+
+    @Query("""
+            SELECT new com.project.uber.Uber.dto.RideDto(r.id, r.pickUpLocation, r.dropOffLocation, r.createdTime,
+                r.paymentMethod, r.status, r.fare, r.otp, r.startedAt, r.endedAt,
+                rd.id, rd.rating, ru.name, ru.email, d.id, d.rating, d.available, d.vehicleId, du.name, du.email)
+            FROM Ride r JOIN r.rider rd JOIN rd.user ru JOIN r.driver d JOIN d.user du
+            WHERE rd.id = :riderId
+            ORDER BY r.createdTime DESC, r.id DESC
+            """)
+    Slice<RideDto> findLatestRidesOfRider(@Param("riderId") Long riderId, Pageable pageRequest);
+
+    // keyset continuation on (created_time, id); the <= bound keeps it an index range scan on idx_ride_rider_history
+    @Query("""
+            SELECT new com.project.uber.Uber.dto.RideDto(r.id, r.pickUpLocation, r.dropOffLocation, r.createdTime,
+                r.paymentMethod, r.status, r.fare, r.otp, r.startedAt, r.endedAt,
+                rd.id, rd.rating, ru.name, ru.email, d.id, d.rating, d.available, d.vehicleId, du.name, du.email)
+            FROM Ride r JOIN r.rider rd JOIN rd.user ru JOIN r.driver d JOIN d.user du
+            WHERE rd.id = :riderId
+                AND r.createdTime <= :createdTime
+                AND (r.createdTime < :createdTime OR r.id < :id)
+            ORDER BY r.createdTime DESC, r.id DESC
+            """)
+    Slice<RideDto> findRidesOfRiderBefore(@Param("riderId") Long riderId,
+                                          @Param("createdTime") LocalDateTime createdTime,
+                                          @Param("id") Long id,
+                                          Pageable pageRequest);
+
+    @Query("""
+            SELECT new com.project.uber.Uber.dto.DriverRideDto(r.id, r.pickUpLocation, r.dropOffLocation, r.createdTime,
+                r.paymentMethod, r.status, r.fare, r.startedAt, r.endedAt,
+                rd.id, rd.rating, ru.name, ru.email, d.id, d.rating, d.available, d.vehicleId, du.name, du.email)
+            FROM Ride r JOIN r.rider rd JOIN rd.user ru JOIN r.driver d JOIN d.user du
+            WHERE d.id = :driverId
+            ORDER BY r.createdTime DESC, r.id DESC
+            """)
+    Slice<DriverRideDto> findLatestRidesOfDriver(@Param("driverId") Long driverId, Pageable pageRequest);
+
+    @Query("""
+            SELECT new com.project.uber.Uber.dto.DriverRideDto(r.id, r.pickUpLocation, r.dropOffLocation, r.createdTime,
+                r.paymentMethod, r.status, r.fare, r.startedAt, r.endedAt,
+                rd.id, rd.rating, ru.name, ru.email, d.id, d.rating, d.available, d.vehicleId, du.name, du.email)
+            FROM Ride r JOIN r.rider rd JOIN rd.user ru JOIN r.driver d JOIN d.user du
+            WHERE d.id = :driverId
+                AND r.createdTime <= :createdTime
+                AND (r.createdTime < :createdTime OR r.id < :id)
+            ORDER BY r.createdTime DESC, r.id DESC
+            """)
+    Slice<DriverRideDto> findRidesOfDriverBefore(@Param("driverId") Long driverId,
+                                                 @Param("createdTime") LocalDateTime createdTime,
+                                                 @Param("id") Long id,
+                                                 Pageable pageRequest);
 }
@@ -1,9 +1,16 @@
 package com.project.uber.Uber.repositories;
 
 import com.project.uber.Uber.entities.RideRequest;
+import com.project.uber.Uber.entities.enums.RideRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RideRequestRepository extends JpaRepository<RideRequest,Long> {
+
+    @Modifying
+    @Query("UPDATE RideRequest r SET r.status = :newStatus WHERE r.id = :id AND r.status = :expectedStatus")
+    int compareAndSetStatus(Long id, RideRequestStatus expectedStatus, RideRequestStatus newStatus);
 }
@@ -3,6 +3,7 @@ package com.project.uber.Uber.repositories;
 import com.project.uber.Uber.entities.Rider;
 import com.project.uber.Uber.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +11,7 @@ import java.util.Optional;
 @Repository
 public interface RiderRepository extends JpaRepository<Rider,Long> {
     Optional<Rider> findByUser(User user);
+
+    @Query("SELECT r.id FROM Rider r WHERE r.user.id = :userId")
+    Optional<Long> findIdByUserId(Long userId);
 }
@@ -0,0 +1,59 @@
+package com.project.uber.Uber.security;
+
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.repositories.RiderRepository;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+// ids of the authenticated user for the current request, taken from the token or looked up at most once
+@Component
+@RequestScope
+public class IdentityContext {
+
+    private final RiderRepository riderRepository;
+    private final DriverRepository driverRepository;
+
+    private Long userId;
+    private Long riderId;
+    private Long driverId;
+
+    public IdentityContext(RiderRepository riderRepository, DriverRepository driverRepository) {
+        this.riderRepository = riderRepository;
+        this.driverRepository = driverRepository;
+    }
+
+    public void setIdentity(Long userId, Long riderId, Long driverId) {
+        this.userId = userId;
+        this.riderId = riderId;
+        this.driverId = driverId;
+    }
+
+    public Long getUserId() {
+        if (userId == null) {
+            User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            userId = user.getId();
+        }
+        return userId;
+    }
+
+    public Long getRiderId() {
+        if (riderId == null) {
+            riderId = riderRepository
+                    .findIdByUserId(getUserId())
+                    .orElseThrow(() -> new AuthenticationServiceException("No rider was found!"));
+        }
+        return riderId;
+    }
+
+    public Long getDriverId() {
+        if (driverId == null) {
+            driverId = driverRepository
+                    .findIdByUserId(getUserId())
+                    .orElseThrow(() -> new AuthenticationServiceException("No driver was found!"));
+        }
+        return driverId;
+    }
+}
@@ -1,13 +1,16 @@
 package com.project.uber.Uber.security;
 
 import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.services.RefreshTokenService;
 import com.project.uber.Uber.services.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -26,10 +30,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserService userService;
+    private final IdentityContext identityContext;
+    private final RefreshTokenService refreshTokenService;
 
-    public JwtAuthFilter(JwtService jwtService, UserService userService) {
+    public JwtAuthFilter(JwtService jwtService, UserService userService, IdentityContext identityContext, RefreshTokenService refreshTokenService) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.identityContext = identityContext;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -42,13 +50,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
 
             String token = requestTokenHeader.split("Bearer ")[1];
-            Long userId = jwtService.getUserId(token);
+            Claims claims = jwtService.getAuthenticationClaims(token);
+            String sessionId = claims.get("sid", String.class);
+            if (sessionId != null && refreshTokenService.isRevoked(UUID.fromString(sessionId))) {
+                throw new AuthenticationCredentialsNotFoundException("Session has been revoked");
+            }
 
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userService.getUserFromId(userId);
+            if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                User user = userService.getUserFromClaims(claims);
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                identityContext.setIdentity(user.getId(), claims.get("riderId", Long.class), claims.get("driverId", Long.class));
             }
             filterChain.doFilter(request, response);
         } catch (Exception e){
@@ -1,58 +1,202 @@
 package com.project.uber.Uber.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.project.uber.Uber.entities.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secretKey}")
-    private String secretKey;
+    private static final long REFRESH_TOKEN_VALIDITY_IN_MILLIS = 1000L * 60 * 60 * 24 * 30 * 6;
 
-    private SecretKey getSecretKey() {
+    private final String signingKeyId;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys = new HashMap<>();
+    private final JwtParser parser;
+    private final long accessTokenValidityInSeconds;
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtService(MeterRegistry meterRegistry,
+                      @Value("${jwt.secretKey}") String secretKey,
+                      @Value("${jwt.keyId}") String keyId,
+                      @Value("${jwt.previousKeys}") List<String> previousKeys,
+                      @Value("${jwt.accessTokenValidityInSeconds}") long accessTokenValidityInSeconds,
+                      @Value("${jwt.verifiedTokenCache.enabled}") boolean verifiedTokenCacheEnabled,
+                      @Value("${jwt.verifiedTokenCache.maximumSize}") long verifiedTokenCacheMaximumSize,
+                      @Value("${jwt.verifiedTokenCache.ttlInSeconds}") long verifiedTokenCacheTtlInSeconds) {
+        this.signingKeyId = keyId;
+        this.signingKey = hmacKey(secretKey);
+        this.accessTokenValidityInSeconds = accessTokenValidityInSeconds;
+        verificationKeys.put(keyId, signingKey);
+        // retired keys, as kid:secret, stay valid for verification until their tokens have expired
+        for (String previousKey : previousKeys) {
+            if (previousKey.isBlank()) continue;
+            int separator = previousKey.indexOf(':');
+            if (separator <= 0) throw new IllegalArgumentException("jwt.previousKeys entries must be kid:secret");
+            verificationKeys.put(previousKey.substring(0, separator).trim(), hmacKey(previousKey.substring(separator + 1).trim()));
+        }
+
+        this.parser = Jwts
+                .parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        // tokens signed before key ids were introduced carry no kid
+                        String kid = header.getKeyId();
+                        return kid == null ? signingKey : verificationKeys.get(kid);
+                    }
+                })
+                .build();
+
+        if (verifiedTokenCacheEnabled) {
+            long ttlInNanos = TimeUnit.SECONDS.toNanos(verifiedTokenCacheTtlInSeconds);
+            this.verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedTokenCacheMaximumSize)
+                    .expireAfter(new Expiry<String, Claims>() {
+                        @Override
+                        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                            return expiresIn(claims, ttlInNanos);
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+
+                        @Override
+                        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedToken");
+        } else {
+            this.verifiedTokens = null;
+        }
+    }
+
+    private static SecretKey hmacKey(String secretKey) {
         if (secretKey == null || secretKey.length() < 32) {
-            throw new IllegalArgumentException("Secret key must be at least 32 characters long for HS256:"+secretKey.length()+secretKey);
+            throw new IllegalArgumentException("Secret key must be at least 32 characters long for HS256");
         }
         return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
     }
 
-    public String getAccessJwtToken(User user){
+    // a cached token never outlives its own expiration
+    private static long expiresIn(Claims claims, long ttlInNanos) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) return ttlInNanos;
+        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+        return Math.max(0, Math.min(remaining, ttlInNanos));
+    }
+
+    public String getAccessJwtToken(User user, Long riderId, Long driverId, UUID sessionId){
         return Jwts
                 .builder()
+                .header().keyId(signingKeyId).and()
                 .subject(String.valueOf(user.getId()))
                 .claim("email",user.getEmail())
-                .claim("role",user.getRoles().toString())
+                .claim("roles",user.getRoles().stream().map(Enum::name).toList())
+                .claim("riderId",riderId)
+                .claim("driverId",driverId)
+                .claim("sid",sessionId.toString())
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis()+1000*60*10))
-                .signWith(getSecretKey())
+                .expiration(new Date(System.currentTimeMillis()+1000*accessTokenValidityInSeconds))
+                .signWith(signingKey)
                 .compact();
     }
-    public String getRefreshJwtToken(User user){
+    // no refresh token of a session issued up to now can expire after this, whichever rotation it came from
+    public Instant latestRefreshTokenExpiry() {
+        return Instant.now().plusMillis(REFRESH_TOKEN_VALIDITY_IN_MILLIS);
+    }
+
+    // every refresh token has its own id, the session id stays the same across rotations
+    public String getRefreshJwtToken(User user, UUID sessionId){
         return Jwts
                 .builder()
+                .header().keyId(signingKeyId).and()
+                .id(UUID.randomUUID().toString())
                 .subject(String.valueOf(user.getId()))
+                .claim("type","refresh")
+                .claim("sid",sessionId.toString())
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis()+ 1000L *60*60*24*30*6))
-                .signWith(getSecretKey())
+                .expiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_VALIDITY_IN_MILLIS))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Long getUserId(String token){
-        Claims claims = Jwts
-                .parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String getFareQuoteToken(Long userId, double[] pickUp, double[] dropOff, double fare, Date expiresAt){
+        return Jwts
+                .builder()
+                .header().keyId(signingKeyId).and()
+                .subject(String.valueOf(userId))
+                .claim("type","fareQuote")
+                .claim("pickUp",List.of(pickUp[0],pickUp[1]))
+                .claim("dropOff",List.of(dropOff[0],dropOff[1]))
+                .claim("fare",fare)
+                .issuedAt(new Date())
+                .expiration(expiresAt)
+                .signWith(signingKey)
+                .compact();
+    }
+
+    // throws a JwtException when the signature is invalid or the quote has expired
+    public Claims getFareQuoteClaims(String token){
+        Claims claims = parseClaims(token);
+
+        if (!"fareQuote".equals(claims.get("type",String.class))) {
+            throw new MalformedJwtException("Not a fare quote token");
+        }
+        return claims;
+    }
+
+    public Claims getRefreshClaims(String token){
+        Claims claims = parseClaims(token);
+
+        if (!"refresh".equals(claims.get("type",String.class)) || claims.getId() == null) {
+            throw new MalformedJwtException("Not a refresh token");
+        }
+        return claims;
+    }
+
+    public Claims getAuthenticationClaims(String token){
+        Claims claims = parseClaims(token);
+
+        // fare quote and refresh tokens are signed with the same key but must never authenticate a request
+        if (claims.get("type") != null) {
+            throw new MalformedJwtException("Not an authentication token");
+        }
+        return claims;
+    }
+
+    private Claims parseClaims(String token){
+        if (verifiedTokens == null) return parser.parseSignedClaims(token).getPayload();
 
-        return Long.valueOf(claims.getSubject());
+        // only successfully verified tokens are cached, invalid ones throw out of the loader
+        return verifiedTokens.get(token, ignored -> parser.parseSignedClaims(token).getPayload());
     }
 }
@@ -8,5 +8,7 @@ public interface AuthService {
     UserDto signup(SignupDto signupDto);
     DriverDto onboardNewDriver(Long userId, OnboardDriverDto onboardDriverDto);
 
-    LoginResponseDto refreshToken(String refreshToken);
+    String[] refreshToken(String refreshToken);
+
+    void logout(String refreshToken);
 }
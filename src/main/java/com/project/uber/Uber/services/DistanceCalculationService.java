@@ -2,7 +2,17 @@ package com.project.uber.Uber.services;
 
 import org.locationtech.jts.geom.Point;
 
+import java.util.List;
+
 public interface DistanceCalculationService {
 
     double calculateDistance(Point src, Point des);
+
+    // distances in km from src to every destination, in order; an entry is null when no route exists
+    default List<Double> calculateDistances(Point src, List<Point> destinations) {
+        return destinations
+                .stream()
+                .map(des -> calculateDistance(src, des))
+                .toList();
+    }
 }
@@ -0,0 +1,46 @@
+package com.project.uber.Uber.services;
+
+import com.project.uber.Uber.entities.Driver;
+import org.locationtech.jts.geom.Point;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DriverLocationIndexService {
+
+    void indexDriver(Driver driver);
+
+    void removeDriver(Long driverId);
+
+    void updateLocation(Long driverId, double lon, double lat);
+
+    void updateRating(Long driverId, double rating);
+
+    List<NearbyDriver> findNearestDrivers(Point location, double radiusInMeters, int limit);
+
+    List<Long> findNearestDriverIds(Point location, double radiusInMeters, int limit);
+
+    List<Long> findTopRatedDriverIds(Point location, double radiusInMeters, int limit);
+
+    Map<Long, Integer> countDriversByZone(double zoneSizeInDegrees);
+
+    int size();
+
+    final class NearbyDriver {
+        private final Long driverId;
+        private final double distanceInMeters;
+
+        public NearbyDriver(Long driverId, double distanceInMeters) {
+            this.driverId = driverId;
+            this.distanceInMeters = distanceInMeters;
+        }
+
+        public Long getDriverId() {
+            return driverId;
+        }
+
+        public double getDistanceInMeters() {
+            return distanceInMeters;
+        }
+    }
+}
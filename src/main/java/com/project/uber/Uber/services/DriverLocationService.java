@@ -0,0 +1,10 @@
+package com.project.uber.Uber.services;
+
+import com.project.uber.Uber.dto.PointDto;
+
+public interface DriverLocationService {
+
+    void updateCurrentLocation(PointDto currentLocation);
+
+    int flushPendingLocations();
+}
@@ -3,6 +3,7 @@ package com.project.uber.Uber.services;
 
 import com.project.uber.Uber.dto.DriverDto;
 import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.dto.RideStartDto;
 import com.project.uber.Uber.dto.RiderDto;
 import com.project.uber.Uber.entities.Driver;
@@ -13,6 +14,8 @@ public interface DriverService {
 
     DriverRideDto acceptRide(Long rideRequestId);
 
+    void declineRide(Long rideRequestId);
+
     DriverRideDto cancelRide(Long rideId);
 
     DriverRideDto startRide(Long rideId, RideStartDto rideStartDto);
@@ -25,12 +28,12 @@ public interface DriverService {
 
     Page<DriverRideDto> getAllMyRides(Pageable pageRequest);
 
+    RideHistoryDto<DriverRideDto> getMyRideHistory(String cursor, Integer size);
+
     Driver getCurrentDriver();
 
     Driver getDriverById(Long driverId);
 
-    Driver updateRating(Driver driver, Double rating);
-
     Driver updateDriverAvailability(Driver driver, boolean available);
 
     Driver createNewDriver(Driver createDriver);
@@ -0,0 +1,11 @@
+package com.project.uber.Uber.services;
+
+import org.locationtech.jts.geom.Point;
+
+public interface FareMatrixService {
+
+    // typical road distance in km, or null when the trip should be routed live
+    Double findDistance(Point src, Point des);
+
+    void rebuildMatrix();
+}
@@ -0,0 +1,11 @@
+package com.project.uber.Uber.services;
+
+import com.project.uber.Uber.dto.FareQuoteDto;
+import com.project.uber.Uber.entities.RideRequest;
+
+public interface FareQuoteService {
+
+    FareQuoteDto getFareQuote(FareQuoteDto fareQuoteDto);
+
+    double redeemFareQuote(String quoteToken, RideRequest rideRequest, Long userId);
+}
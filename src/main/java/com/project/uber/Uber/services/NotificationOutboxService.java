@@ -0,0 +1,8 @@
+package com.project.uber.Uber.services;
+
+public interface NotificationOutboxService {
+
+    int processOutbox();
+
+    int purgeSent();
+}
@@ -0,0 +1,14 @@
+package com.project.uber.Uber.services;
+
+import com.project.uber.Uber.dto.PushEventDto;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+public interface PushGatewayService {
+
+    Flux<ServerSentEvent<PushEventDto>> connect();
+
+    boolean push(Long userId, String event, PushEventDto payload);
+
+    int activeConnections();
+}
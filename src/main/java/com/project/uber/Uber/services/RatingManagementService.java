@@ -10,4 +10,5 @@ public interface RatingManagementService {
     DriverDto rateDriver(Ride ride, Driver driver, Double rating);
     RiderDto rateRider(Ride ride, Rider rider, Double rating);
     void createNewRating(Ride ride);
+    void backfillRatingAggregates();
 }
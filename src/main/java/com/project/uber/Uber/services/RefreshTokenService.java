@@ -0,0 +1,12 @@
+package com.project.uber.Uber.services;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface RefreshTokenService {
+
+    boolean isRevoked(UUID id);
+
+    // false when the id was already revoked, which on rotation means the refresh token was replayed
+    boolean revoke(UUID id, Instant expiresAt);
+}
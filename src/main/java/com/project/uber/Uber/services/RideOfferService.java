@@ -0,0 +1,20 @@
+package com.project.uber.Uber.services;
+
+import com.project.uber.Uber.entities.Driver;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface RideOfferService {
+
+    void startDispatch(Long rideRequestId, List<Driver> rankedDrivers);
+
+    // offerResolved is called with a driver id once that driver's offer is accepted, declined or times out
+    void startDispatch(Long rideRequestId, List<Driver> rankedDrivers, Consumer<Long> offerResolved);
+
+    void declineOffer(Long rideRequestId, Long driverId);
+
+    void claimOffer(Long rideRequestId, Long driverId);
+
+    int activeDispatches();
+}
@@ -7,4 +7,6 @@ public interface RideRequestService {
     RideRequest findRideRequestById(Long id);
 
     void updateRideRequest(RideRequest rideRequest);
+
+    void claimRideRequest(Long rideRequestId, Long driverId);
 }
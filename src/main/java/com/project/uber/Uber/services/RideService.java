@@ -1,5 +1,8 @@
 package com.project.uber.Uber.services;
 
+import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.RideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.Ride;
 import com.project.uber.Uber.entities.RideRequest;
@@ -19,4 +22,8 @@ public interface RideService {
     Page<Ride> getAllRidesOfRider(Rider rider, Pageable pageRequest);
 
     Page<Ride> getAllRidesOfDriver(Driver driver, Pageable pageRequest);
+
+    RideHistoryDto<RideDto> getRideHistoryOfRider(Long riderId, String cursor, Integer size);
+
+    RideHistoryDto<DriverRideDto> getRideHistoryOfDriver(Long driverId, String cursor, Integer size);
 }
@@ -2,6 +2,7 @@ package com.project.uber.Uber.services;
 
 import com.project.uber.Uber.dto.DriverDto;
 import com.project.uber.Uber.dto.RideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.dto.RideRequestDto;
 import com.project.uber.Uber.dto.RiderDto;
 import com.project.uber.Uber.entities.Rider;
@@ -19,6 +20,8 @@ public interface RiderService {
 
     Page<RideDto> getAllMyRides(Pageable pageRequest);
 
+    RideHistoryDto<RideDto> getMyRideHistory(String cursor, Integer size);
+
     DriverDto rateDriver(Long rideId, Double rating);
 
     void createNewRider(User savedUser);
@@ -26,6 +29,4 @@ public interface RiderService {
     Rider getCurrentRider();
 
     Rider getRiderById(Long id);
-
-    Rider updateRating(Rider rider, Double rating);
 }
@@ -0,0 +1,12 @@
+package com.project.uber.Uber.services;
+
+import org.locationtech.jts.geom.Point;
+
+public interface SurgePricingService {
+
+    void recordRideRequest(Point pickUpLocation);
+
+    double getSurgeMultiplier(Point pickUpLocation);
+
+    void recomputeMultipliers();
+}
@@ -1,8 +1,14 @@
 package com.project.uber.Uber.services;
 
 import com.project.uber.Uber.entities.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
     User getUserFromId(Long userId);
+
+    User getUserFromClaims(Claims claims);
+
+    void onRolesChanged(Long userId);
 }
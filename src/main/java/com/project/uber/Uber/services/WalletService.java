@@ -7,9 +7,10 @@ import com.project.uber.Uber.entities.enums.TransactionMethod;
 
 public interface WalletService {
 
-    Wallet addMoneyToWallet(User user, Double amount, String transactionId, Ride ride, TransactionMethod transactionMethod);
+    // both return the new balance in minor units
+    long addMoneyToWallet(User user, long amountInMinorUnits, String transactionId, Ride ride, TransactionMethod transactionMethod);
 
-    Wallet subtractMoneyFromWallet(User user, Double amount, String transactionId, Ride ride, TransactionMethod transactionMethod);
+    long subtractMoneyFromWallet(User user, long amountInMinorUnits, String transactionId, Ride ride, TransactionMethod transactionMethod);
 
     Wallet findWalletById(Long walletId);
 
@@ -4,5 +4,6 @@ import com.project.uber.Uber.entities.WalletTransaction;
 
 public interface WalletTransactionService {
 
-    void createNewWalletTransaction(WalletTransaction walletTransaction);
+    // postings inside one transaction are written together as a single batch just before it commits
+    void appendWalletTransaction(WalletTransaction walletTransaction);
 }
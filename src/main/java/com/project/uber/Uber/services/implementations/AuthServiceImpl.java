@@ -6,12 +6,16 @@ import com.project.uber.Uber.entities.User;
 import com.project.uber.Uber.entities.enums.Roles;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
 import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.repositories.RiderRepository;
 import com.project.uber.Uber.repositories.UserRepository;
 import com.project.uber.Uber.security.JwtService;
 import com.project.uber.Uber.services.*;
+import com.project.uber.Uber.utils.DtoMapper;
 import com.project.uber.Uber.utils.GeometryUtil;
+import com.project.uber.Uber.utils.TransactionUtil;
+import io.jsonwebtoken.Claims;
 import org.locationtech.jts.geom.Point;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,11 +26,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class AuthServiceImpl implements AuthService {
 
-    private final ModelMapper modelMapper;
     private final UserRepository userRepository;
     private final RiderService riderService;
     private final WalletService walletService;
@@ -35,9 +39,11 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final RiderRepository riderRepository;
+    private final DriverRepository driverRepository;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthServiceImpl(ModelMapper modelMapper, AuthenticationManager authenticationManager, PasswordEncoder passwordEncoder, UserService userService, JwtService jwtService, UserRepository userRepository, DriverService driverService, RiderService riderService, WalletService walletService) {
-        this.modelMapper = modelMapper;
+    public AuthServiceImpl(AuthenticationManager authenticationManager, PasswordEncoder passwordEncoder, UserService userService, JwtService jwtService, UserRepository userRepository, DriverService driverService, RiderService riderService, WalletService walletService, RiderRepository riderRepository, DriverRepository driverRepository, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.riderService = riderService;
         this.walletService = walletService;
@@ -46,6 +52,9 @@ public class AuthServiceImpl implements AuthService {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userService = userService;
+        this.riderRepository = riderRepository;
+        this.driverRepository = driverRepository;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -57,8 +66,9 @@ public class AuthServiceImpl implements AuthService {
 
         User user = (User) authentication.getPrincipal();
 
-        String accessToken = jwtService.getAccessJwtToken(user);
-        String refreshToken = jwtService.getRefreshJwtToken(user);
+        UUID sessionId = UUID.randomUUID();
+        String accessToken = getAccessJwtToken(user, sessionId);
+        String refreshToken = jwtService.getRefreshJwtToken(user, sessionId);
 
         return new String[]{accessToken, refreshToken};
     }
@@ -70,13 +80,13 @@ public class AuthServiceImpl implements AuthService {
         if(user.isPresent()){
             throw new RuntimeConflictException("User already exists with that email!");
         }
-        User mappedUser = modelMapper.map(signupDto,User.class);
+        User mappedUser = DtoMapper.toUser(signupDto);
         mappedUser.setPassword(passwordEncoder.encode(mappedUser.getPassword()));
         mappedUser.setRoles(Set.of(Roles.RIDER));
         User savedUser = userRepository.save(mappedUser);
         riderService.createNewRider(savedUser);
         walletService.createNewWallet(savedUser);
-        return modelMapper.map(savedUser,UserDto.class);
+        return DtoMapper.toUserDto(savedUser);
     }
 
     @Override
@@ -103,19 +113,47 @@ public class AuthServiceImpl implements AuthService {
 
         user.getRoles().add(Roles.DRIVER);
         userRepository.save(user);
+        TransactionUtil.afterCommit(() -> userService.onRolesChanged(userId));
         Driver savedDriver = driverService.createNewDriver(createDriver);
 
-        return modelMapper.map(savedDriver, DriverDto.class);
+        return DtoMapper.toDriverDto(savedDriver);
     }
 
     @Override
-    public LoginResponseDto refreshToken(String refreshToken) {
+    public String[] refreshToken(String refreshToken) {
 
-        Long userId = jwtService.getUserId(refreshToken);
-        User user = userService.getUserFromId(userId);
-        if(user == null) throw new AuthenticationCredentialsNotFoundException("User not found");
+        Claims claims = jwtService.getRefreshClaims(refreshToken);
+        UUID tokenId = UUID.fromString(claims.getId());
+        UUID sessionId = UUID.fromString(claims.get("sid", String.class));
+        if (refreshTokenService.isRevoked(sessionId)) {
+            throw new AuthenticationCredentialsNotFoundException("Session has been revoked");
+        }
+
+        // rotation: the presented token is spent; presenting it again means it leaked, so the whole session is revoked
+        // until every token rotated from it has expired, not just the replayed one
+        if (!refreshTokenService.revoke(tokenId, claims.getExpiration().toInstant())) {
+            refreshTokenService.revoke(sessionId, jwtService.latestRefreshTokenExpiry());
+            throw new AuthenticationCredentialsNotFoundException("Refresh token has already been used");
+        }
+
+        User user = userService.getUserFromId(Long.valueOf(claims.getSubject()));
+        String accessToken = getAccessJwtToken(user, sessionId);
+        String newRefreshToken = jwtService.getRefreshJwtToken(user, sessionId);
+        return new String[]{accessToken, newRefreshToken};
+    }
+
+    @Override
+    public void logout(String refreshToken) {
+        Claims claims = jwtService.getRefreshClaims(refreshToken);
+        refreshTokenService.revoke(UUID.fromString(claims.get("sid", String.class)), jwtService.latestRefreshTokenExpiry());
+    }
 
-        String accessToken = jwtService.getAccessJwtToken(user);
-        return new LoginResponseDto(accessToken);
+    // rider and driver ids go into the token so requests never have to look them up
+    private String getAccessJwtToken(User user, UUID sessionId) {
+        Long riderId = riderRepository.findIdByUserId(user.getId()).orElse(null);
+        Long driverId = user.getRoles().contains(Roles.DRIVER)
+                ? driverRepository.findIdByUserId(user.getId()).orElse(null)
+                : null;
+        return jwtService.getAccessJwtToken(user, riderId, driverId, sessionId);
     }
 }
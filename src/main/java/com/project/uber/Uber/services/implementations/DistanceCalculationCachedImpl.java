@@ -0,0 +1,122 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.uber.Uber.services.DistanceCalculationService;
+import com.project.uber.Uber.utils.GeometryUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+@Primary
+@Qualifier("cachedDistanceService")
+public class DistanceCalculationCachedImpl implements DistanceCalculationService {
+
+    private final DistanceCalculationResilientImpl resilientDistanceService;
+    private final double gridSizeInDegrees;
+    // routing calls run here, outside the cache's compute, so a slow call never holds a hash-bin lock
+    private final ExecutorService routingExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<RouteKey, Double> distances;
+
+    public DistanceCalculationCachedImpl(DistanceCalculationResilientImpl resilientDistanceService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${distance.cache.gridSizeInDegrees}") double gridSizeInDegrees,
+                                         @Value("${distance.cache.maximumSize}") long maximumSize,
+                                         @Value("${distance.cache.ttlInMinutes}") long ttlInMinutes) {
+        this.resilientDistanceService = resilientDistanceService;
+        this.gridSizeInDegrees = gridSizeInDegrees;
+        this.distances = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlInMinutes))
+                .recordStats()
+                .executor(routingExecutor)
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, distances, "routeDistance");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        routingExecutor.shutdown();
+    }
+
+    @Override
+    public double calculateDistance(Point src, Point des) {
+        RouteKey key = new RouteKey(
+                GeometryUtil.cellKey(src.getX(), src.getY(), gridSizeInDegrees),
+                GeometryUtil.cellKey(des.getX(), des.getY(), gridSizeInDegrees));
+        // concurrent lookups of the same key share one in-flight routing call; a null result (an estimate) is not cached
+        Double distance = distances.get(key, (ignored, executor) ->
+                CompletableFuture.supplyAsync(() -> resilientDistanceService.routeDistance(src, des), executor)).join();
+        return distance != null ? distance : resilientDistanceService.estimateDistance(src, des);
+    }
+
+    @Override
+    public List<Double> calculateDistances(Point src, List<Point> destinations) {
+        long srcCell = GeometryUtil.cellKey(src.getX(), src.getY(), gridSizeInDegrees);
+        Double[] result = new Double[destinations.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < destinations.size(); i++) {
+            Point des = destinations.get(i);
+            // a route still being fetched counts as a miss rather than waiting on it
+            CompletableFuture<Double> cached = distances.getIfPresent(new RouteKey(srcCell, GeometryUtil.cellKey(des.getX(), des.getY(), gridSizeInDegrees)));
+            result[i] = cached != null && cached.isDone() && !cached.isCompletedExceptionally() ? cached.getNow(null) : null;
+            if (result[i] == null) missing.add(i);
+        }
+        if (missing.isEmpty()) return Arrays.asList(result);
+
+        // only the misses go to the routing service, in one bulk call
+        List<Point> missingDestinations = missing.stream().map(destinations::get).toList();
+        List<Double> fetched = resilientDistanceService.routeDistances(src, missingDestinations);
+        if (fetched == null) {
+            List<Double> estimates = resilientDistanceService.estimateDistances(src, missingDestinations);
+            for (int j = 0; j < missing.size(); j++) result[missing.get(j)] = estimates.get(j);
+            return Arrays.asList(result);
+        }
+        for (int j = 0; j < missing.size(); j++) {
+            int i = missing.get(j);
+            result[i] = fetched.get(j);
+            if (result[i] == null) continue;
+            Point des = destinations.get(i);
+            distances.put(new RouteKey(srcCell, GeometryUtil.cellKey(des.getX(), des.getY(), gridSizeInDegrees)),
+                    CompletableFuture.completedFuture(result[i]));
+        }
+        return Arrays.asList(result);
+    }
+
+    private static final class RouteKey {
+        private final long srcCell;
+        private final long desCell;
+
+        private RouteKey(long srcCell, long desCell) {
+            this.srcCell = srcCell;
+            this.desCell = desCell;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RouteKey other)) return false;
+            return srcCell == other.srcCell && desCell == other.desCell;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(srcCell, desCell);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.services.DistanceCalculationService;
+import com.project.uber.Uber.utils.ContractionHierarchyGraph;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Service
+@Qualifier("routingDistanceService")
+@ConditionalOnProperty(name = "distance.provider", havingValue = "embedded")
+public class DistanceCalculationEmbeddedImpl implements DistanceCalculationService {
+
+    private static final Logger log = Logger.getLogger(DistanceCalculationEmbeddedImpl.class);
+
+    private final ContractionHierarchyGraph roadGraph;
+    private final double maxSnapDistanceInMeters;
+
+    public DistanceCalculationEmbeddedImpl(@Value("${routing.graph.path}") String graphPath,
+                                           @Value("${routing.graph.memoryMap}") boolean memoryMap,
+                                           @Value("${routing.graph.maxSnapDistanceInMeters}") double maxSnapDistanceInMeters) throws IOException {
+        long start = System.currentTimeMillis();
+        this.roadGraph = ContractionHierarchyGraph.load(Path.of(graphPath), memoryMap);
+        this.maxSnapDistanceInMeters = maxSnapDistanceInMeters;
+        log.info("Road graph with " + roadGraph.getNodeCount() + " nodes loaded from " + graphPath
+                + (memoryMap ? " (memory-mapped)" : "") + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @Override
+    public double calculateDistance(Point src, Point des) {
+        ContractionHierarchyGraph.Route route = roadGraph.route(src.getX(), src.getY(), des.getX(), des.getY(), maxSnapDistanceInMeters);
+        if (route == null) {
+            throw new RuntimeConflictException("No road route found between "
+                    + src.getX() + "," + src.getY() + " and " + des.getX() + "," + des.getY());
+        }
+        return route.getDistanceInMeters() / 1000.0;
+    }
+}
@@ -3,36 +3,91 @@ package com.project.uber.Uber.services.implementations;
 import com.project.uber.Uber.exceptions.RuntimeConflictException;
 import com.project.uber.Uber.services.DistanceCalculationService;
 import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Qualifier("routingDistanceService")
+@ConditionalOnProperty(name = "distance.provider", havingValue = "osrm", matchIfMissing = true)
 public class DistanceCalculationOSRMImpl implements DistanceCalculationService {
 
-    private static final String OSRM_API_BASE_URL = "https://router.project-osrm.org/route/v1/driving/";
+    private final WebClient osrmWebClient;
+    private final Duration requestTimeout;
+
+    public DistanceCalculationOSRMImpl(WebClient osrmWebClient,
+                                       @Value("${osrm.pendingAcquireTimeoutInMillis}") long pendingAcquireTimeoutInMillis,
+                                       @Value("${osrm.responseTimeoutInMillis}") long responseTimeoutInMillis) {
+        this.osrmWebClient = osrmWebClient;
+        this.requestTimeout = Duration.ofMillis(pendingAcquireTimeoutInMillis + responseTimeoutInMillis);
+    }
 
     @Override
     public double calculateDistance(Point src, Point des) {
+        try{
+            return calculateDistanceAsync(src, des).block(requestTimeout);
+        } catch (Exception e){
+            throw new RuntimeConflictException("Error getting data from OSRM "+e.getLocalizedMessage());
+        }
+    }
 
+    @Override
+    public List<Double> calculateDistances(Point src, List<Point> destinations) {
+        if (destinations.isEmpty()) return List.of();
         try{
-            String uri = src.getX()+","+src.getY()+";"+des.getX()+","+des.getY();
-
-            OSRMResponseDto osrmResponse = RestClient
-                    .builder()
-                    .baseUrl(OSRM_API_BASE_URL)
-                    .build()
-                    .get()
-                    .uri(uri)
-                    .retrieve()
-                    .body(OSRMResponseDto.class);
-
-            return osrmResponse.getRoutes().get(0).getDistance() / 1000.0;
+            return calculateDistancesAsync(src, destinations).block(requestTimeout);
         } catch (Exception e){
             throw new RuntimeConflictException("Error getting data from OSRM "+e.getLocalizedMessage());
         }
     }
+
+    public Mono<Double> calculateDistanceAsync(Point src, Point des) {
+        return osrmWebClient
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/route/v1/driving/" + coordinates(Stream.of(src, des)))
+                        .queryParam("overview", "false")
+                        .build())
+                .retrieve()
+                .bodyToMono(OSRMResponseDto.class)
+                .map(osrmResponse -> osrmResponse.getRoutes().get(0).getDistance() / 1000.0);
+    }
+
+    // a single /table call with the source at index 0 answers the whole one-to-many query
+    public Mono<List<Double>> calculateDistancesAsync(Point src, List<Point> destinations) {
+        return osrmWebClient
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/table/v1/driving/" + coordinates(Stream.concat(Stream.of(src), destinations.stream())))
+                        .queryParam("sources", "0")
+                        .queryParam("annotations", "distance")
+                        .build())
+                .retrieve()
+                .bodyToMono(OSRMTableResponseDto.class)
+                .map(tableResponse -> {
+                    List<Double> row = tableResponse.getDistances().get(0);
+                    List<Double> distances = new ArrayList<>(destinations.size());
+                    for (int i = 1; i < row.size(); i++) {
+                        distances.add(row.get(i) != null ? row.get(i) / 1000.0 : null);
+                    }
+                    return distances;
+                });
+    }
+
+    private static String coordinates(Stream<Point> points) {
+        return points
+                .map(point -> point.getX() + "," + point.getY())
+                .collect(Collectors.joining(";"));
+    }
 }
 
 class OSRMResponseDto{
@@ -58,3 +113,15 @@ class OSRMRoutes{
         this.distance = distance;
     }
 }
+
+class OSRMTableResponseDto{
+    private List<List<Double>> distances;
+
+    public List<List<Double>> getDistances() {
+        return distances;
+    }
+
+    public void setDistances(List<List<Double>> distances) {
+        this.distances = distances;
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.services.DistanceCalculationService;
+import com.project.uber.Uber.utils.CircuitBreaker;
+import com.project.uber.Uber.utils.GeometryUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// sits below the route cache, so the breaker and the detour calibration only ever see real routing calls
+@Service
+@Qualifier("resilientDistanceService")
+public class DistanceCalculationResilientImpl implements DistanceCalculationService {
+
+    private static final Logger log = Logger.getLogger(DistanceCalculationResilientImpl.class);
+
+    private static final double CALIBRATION_WEIGHT = 0.05;
+    private static final double MIN_CALIBRATION_DISTANCE_IN_KM = 0.5;
+    private static final double MIN_DETOUR_FACTOR = 1.0;
+    private static final double MAX_DETOUR_FACTOR = 3.0;
+
+    private final DistanceCalculationService routingDistanceService;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter estimateCounter;
+
+    private volatile double detourFactor;
+
+    public DistanceCalculationResilientImpl(@Qualifier("routingDistanceService") DistanceCalculationService routingDistanceService,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${distance.circuit.windowSize}") int windowSize,
+                                            @Value("${distance.circuit.minimumCalls}") int minimumCalls,
+                                            @Value("${distance.circuit.failureRateThreshold}") double failureRateThreshold,
+                                            @Value("${distance.circuit.slowCallRateThreshold}") double slowCallRateThreshold,
+                                            @Value("${distance.circuit.slowCallDurationInMillis}") long slowCallDurationInMillis,
+                                            @Value("${distance.circuit.openDurationInMillis}") long openDurationInMillis,
+                                            @Value("${distance.circuit.halfOpenCalls}") int halfOpenCalls,
+                                            @Value("${distance.fallback.initialDetourFactor}") double initialDetourFactor) {
+        this.routingDistanceService = routingDistanceService;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+                slowCallDurationInMillis, openDurationInMillis, halfOpenCalls);
+        this.detourFactor = initialDetourFactor;
+
+        this.successTimer = Timer.builder("distance.routing.latency").tag("outcome", "success").register(meterRegistry);
+        this.failureTimer = Timer.builder("distance.routing.latency").tag("outcome", "failure").register(meterRegistry);
+        this.estimateCounter = Counter.builder("distance.fallback.estimates").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("distance.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half open")
+                .register(meterRegistry);
+        Gauge.builder("distance.fallback.detourFactor", this, service -> service.detourFactor).register(meterRegistry);
+    }
+
+    @Override
+    public double calculateDistance(Point src, Point des) {
+        Double distance = routeDistance(src, des);
+        return distance != null ? distance : estimateDistance(src, des);
+    }
+
+    @Override
+    public List<Double> calculateDistances(Point src, List<Point> destinations) {
+        List<Double> distances = routeDistances(src, destinations);
+        return distances != null ? distances : estimateDistances(src, destinations);
+    }
+
+    // the routed distance, or null when the circuit is open or the call failed; null results are never cached
+    public Double routeDistance(Point src, Point des) {
+        if (!circuitBreaker.tryAcquirePermission()) return null;
+        long start = System.nanoTime();
+        try {
+            double distance = routingDistanceService.calculateDistance(src, des);
+            onSuccess(System.nanoTime() - start);
+            calibrate(distance, GeometryUtil.distanceInMeters(src, des) / 1000.0);
+            return distance;
+        } catch (RuntimeException e) {
+            onFailure(System.nanoTime() - start, e);
+            return null;
+        }
+    }
+
+    public List<Double> routeDistances(Point src, List<Point> destinations) {
+        if (!circuitBreaker.tryAcquirePermission()) return null;
+        long start = System.nanoTime();
+        try {
+            List<Double> distances = routingDistanceService.calculateDistances(src, destinations);
+            onSuccess(System.nanoTime() - start);
+            for (int i = 0; i < distances.size(); i++) {
+                if (distances.get(i) != null) {
+                    calibrate(distances.get(i), GeometryUtil.distanceInMeters(src, destinations.get(i)) / 1000.0);
+                }
+            }
+            return distances;
+        } catch (RuntimeException e) {
+            onFailure(System.nanoTime() - start, e);
+            return null;
+        }
+    }
+
+    public double estimateDistance(Point src, Point des) {
+        estimateCounter.increment();
+        return GeometryUtil.distanceInMeters(src, des) / 1000.0 * detourFactor;
+    }
+
+    public List<Double> estimateDistances(Point src, List<Point> destinations) {
+        List<Double> estimates = new ArrayList<>(destinations.size());
+        for (Point des : destinations) estimates.add(estimateDistance(src, des));
+        return estimates;
+    }
+
+    private void onSuccess(long durationInNanos) {
+        circuitBreaker.onSuccess(durationInNanos);
+        successTimer.record(durationInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void onFailure(long durationInNanos, RuntimeException e) {
+        circuitBreaker.onFailure();
+        failureTimer.record(durationInNanos, TimeUnit.NANOSECONDS);
+        log.warn("Routing failed, falling back to estimated distance: " + e.getMessage());
+    }
+
+    // moving average of road distance over great-circle distance, ignoring trips too short to be representative
+    private void calibrate(double roadDistanceInKm, double greatCircleDistanceInKm) {
+        if (greatCircleDistanceInKm < MIN_CALIBRATION_DISTANCE_IN_KM) return;
+        double ratio = Math.min(Math.max(roadDistanceInKm / greatCircleDistanceInKm, MIN_DETOUR_FACTOR), MAX_DETOUR_FACTOR);
+        detourFactor += CALIBRATION_WEIGHT * (ratio - detourFactor);
+    }
+}
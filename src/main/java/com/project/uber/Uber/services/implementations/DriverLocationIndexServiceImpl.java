@@ -0,0 +1,244 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.services.DriverLocationIndexService;
+import com.project.uber.Uber.utils.GeometryUtil;
+import com.project.uber.Uber.utils.TransactionUtil;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Service
+public class DriverLocationIndexServiceImpl implements DriverLocationIndexService {
+
+    private static final Logger log = Logger.getLogger(DriverLocationIndexServiceImpl.class);
+
+    private final DriverRepository driverRepository;
+    private final double cellSizeInDegrees;
+
+    private final Map<Long, IndexedDriver> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public DriverLocationIndexServiceImpl(DriverRepository driverRepository,
+                                          @Value("${driver.index.cellSizeInDegrees}") double cellSizeInDegrees) {
+        this.driverRepository = driverRepository;
+        this.cellSizeInDegrees = cellSizeInDegrees;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAvailableDrivers() {
+        driverRepository
+                .findByAvailableTrueAndCurrentLocationIsNotNull()
+                .forEach(driver -> move(driver.getId(),
+                        driver.getCurrentLocation().getX(),
+                        driver.getCurrentLocation().getY(),
+                        driver.getRating() != null ? driver.getRating() : 0.0,
+                        true));
+        log.info("Driver location index loaded with " + drivers.size() + " available drivers");
+    }
+
+    @Override
+    public void indexDriver(Driver driver) {
+        Long driverId = driver.getId();
+        if (!Boolean.TRUE.equals(driver.getAvailable()) || driver.getCurrentLocation() == null) {
+            removeDriver(driverId);
+            return;
+        }
+        double lon = driver.getCurrentLocation().getX();
+        double lat = driver.getCurrentLocation().getY();
+        double rating = driver.getRating() != null ? driver.getRating() : 0.0;
+        TransactionUtil.afterCommit(() -> move(driverId, lon, lat, rating, true));
+    }
+
+    @Override
+    public void removeDriver(Long driverId) {
+        TransactionUtil.afterCommit(() -> drivers.computeIfPresent(driverId, (id, previous) -> {
+            removeFromCell(previous.cell, id);
+            return null;
+        }));
+    }
+
+    @Override
+    public void updateLocation(Long driverId, double lon, double lat) {
+        move(driverId, lon, lat, null, false);
+    }
+
+    @Override
+    public void updateRating(Long driverId, double rating) {
+        drivers.computeIfPresent(driverId, (id, previous) ->
+                new IndexedDriver(id, previous.lon, previous.lat, rating, previous.cell));
+    }
+
+    @Override
+    public List<Long> findNearestDriverIds(Point location, double radiusInMeters, int limit) {
+        return findNearestDrivers(location, radiusInMeters, limit)
+                .stream()
+                .map(NearbyDriver::getDriverId)
+                .toList();
+    }
+
+    @Override
+    public List<NearbyDriver> findNearestDrivers(Point location, double radiusInMeters, int limit) {
+        if (limit <= 0) return List.of();
+
+        double lon = location.getX();
+        double lat = location.getY();
+        int lonIndex = GeometryUtil.cellIndex(lon, cellSizeInDegrees);
+        int latIndex = GeometryUtil.cellIndex(lat, cellSizeInDegrees);
+        double minCellSizeInMeters = minCellSizeInMeters(lat);
+        int maxRing = (int) Math.ceil(radiusInMeters / minCellSizeInMeters);
+
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble((Candidate candidate) -> candidate.distance).reversed());
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            visitRing(lonIndex, latIndex, ring, driver -> {
+                double distance = GeometryUtil.distanceInMeters(lon, lat, driver.lon, driver.lat);
+                if (distance <= radiusInMeters) {
+                    nearest.offer(new Candidate(driver, distance));
+                    if (nearest.size() > limit) nearest.poll();
+                }
+            });
+            // every cell outside this ring is at least ring * cell size away from the search point
+            if (nearest.size() == limit && nearest.peek().distance <= ring * minCellSizeInMeters) break;
+        }
+
+        List<Candidate> sorted = new ArrayList<>(nearest);
+        sorted.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+        return sorted
+                .stream()
+                .map(candidate -> new NearbyDriver(candidate.driver.id, candidate.distance))
+                .toList();
+    }
+
+    @Override
+    public List<Long> findTopRatedDriverIds(Point location, double radiusInMeters, int limit) {
+        if (limit <= 0) return List.of();
+
+        double lon = location.getX();
+        double lat = location.getY();
+        int lonIndex = GeometryUtil.cellIndex(lon, cellSizeInDegrees);
+        int latIndex = GeometryUtil.cellIndex(lat, cellSizeInDegrees);
+        int maxRing = (int) Math.ceil(radiusInMeters / minCellSizeInMeters(lat));
+
+        List<Candidate> inRange = new ArrayList<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            visitRing(lonIndex, latIndex, ring, driver -> {
+                double distance = GeometryUtil.distanceInMeters(lon, lat, driver.lon, driver.lat);
+                if (distance <= radiusInMeters) inRange.add(new Candidate(driver, distance));
+            });
+        }
+
+        inRange.sort(Comparator
+                .comparingDouble((Candidate candidate) -> candidate.driver.rating).reversed()
+                .thenComparingDouble(candidate -> candidate.distance));
+        return inRange.stream().limit(limit).map(candidate -> candidate.driver.id).toList();
+    }
+
+    @Override
+    public Map<Long, Integer> countDriversByZone(double zoneSizeInDegrees) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (IndexedDriver driver : drivers.values()) {
+            counts.merge(GeometryUtil.cellKey(driver.lon, driver.lat, zoneSizeInDegrees), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public int size() {
+        return drivers.size();
+    }
+
+    private void move(Long driverId, double lon, double lat, Double rating, boolean insertIfAbsent) {
+        long cell = GeometryUtil.cellKey(lon, lat, cellSizeInDegrees);
+        drivers.compute(driverId, (id, previous) -> {
+            if (previous == null && !insertIfAbsent) return null;
+            if (previous != null && previous.cell != cell) removeFromCell(previous.cell, id);
+            if (previous == null || previous.cell != cell) addToCell(cell, id);
+            return new IndexedDriver(id, lon, lat, rating != null ? rating : previous.rating, cell);
+        });
+    }
+
+    private void addToCell(long cell, Long driverId) {
+        cells.compute(cell, (key, driverIds) -> {
+            Set<Long> ids = driverIds != null ? driverIds : ConcurrentHashMap.newKeySet();
+            ids.add(driverId);
+            return ids;
+        });
+    }
+
+    private void removeFromCell(long cell, Long driverId) {
+        cells.computeIfPresent(cell, (key, driverIds) -> {
+            driverIds.remove(driverId);
+            return driverIds.isEmpty() ? null : driverIds;
+        });
+    }
+
+    private void visitRing(int lonIndex, int latIndex, int ring, Consumer<IndexedDriver> visitor) {
+        if (ring == 0) {
+            visitCell(lonIndex, latIndex, visitor);
+            return;
+        }
+        for (int dx = -ring; dx <= ring; dx++) {
+            visitCell(lonIndex + dx, latIndex - ring, visitor);
+            visitCell(lonIndex + dx, latIndex + ring, visitor);
+        }
+        for (int dy = -ring + 1; dy < ring; dy++) {
+            visitCell(lonIndex - ring, latIndex + dy, visitor);
+            visitCell(lonIndex + ring, latIndex + dy, visitor);
+        }
+    }
+
+    private void visitCell(int lonIndex, int latIndex, Consumer<IndexedDriver> visitor) {
+        Set<Long> driverIds = cells.get(GeometryUtil.cellKey(lonIndex, latIndex));
+        if (driverIds == null) return;
+        for (Long driverId : driverIds) {
+            IndexedDriver driver = drivers.get(driverId);
+            if (driver != null) visitor.accept(driver);
+        }
+    }
+
+    private double minCellSizeInMeters(double lat) {
+        return cellSizeInDegrees * GeometryUtil.METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+    }
+
+    private static final class IndexedDriver {
+        private final Long id;
+        private final double lon;
+        private final double lat;
+        private final double rating;
+        private final long cell;
+
+        private IndexedDriver(Long id, double lon, double lat, double rating, long cell) {
+            this.id = id;
+            this.lon = lon;
+            this.lat = lat;
+            this.rating = rating;
+            this.cell = cell;
+        }
+    }
+
+    private static final class Candidate {
+        private final IndexedDriver driver;
+        private final double distance;
+
+        private Candidate(IndexedDriver driver, double distance) {
+            this.driver = driver;
+            this.distance = distance;
+        }
+    }
+}
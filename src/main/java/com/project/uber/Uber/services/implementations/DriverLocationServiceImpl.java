@@ -0,0 +1,100 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.dto.PointDto;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.security.IdentityContext;
+import com.project.uber.Uber.services.DriverLocationIndexService;
+import com.project.uber.Uber.services.DriverLocationService;
+import jakarta.annotation.PreDestroy;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class DriverLocationServiceImpl implements DriverLocationService {
+
+    private static final Logger log = Logger.getLogger(DriverLocationServiceImpl.class);
+
+    private static final String UPDATE_LOCATION_SQL =
+            "UPDATE driver SET current_location = ST_SetSRID(ST_MakePoint(?, ?), 4326) WHERE id = ?";
+
+    private final IdentityContext identityContext;
+    private final DriverLocationIndexService driverLocationIndexService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    private final Map<Long, PendingLocation> pendingLocations = new ConcurrentHashMap<>();
+
+    public DriverLocationServiceImpl(IdentityContext identityContext,
+                                     DriverLocationIndexService driverLocationIndexService,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Value("${driver.location.batchSize}") int batchSize) {
+        this.identityContext = identityContext;
+        this.driverLocationIndexService = driverLocationIndexService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void updateCurrentLocation(PointDto currentLocation) {
+        double[] coordinates = currentLocation.getCoordinates();
+        if (coordinates == null || coordinates.length != 2
+                || Math.abs(coordinates[0]) > 180 || Math.abs(coordinates[1]) > 90) {
+            throw new RuntimeConflictException("Location must be [lon, lat] within valid ranges");
+        }
+
+        Long driverId = identityContext.getDriverId();
+        double lon = coordinates[0];
+        double lat = coordinates[1];
+
+        // last write wins, only the newest ping of each driver reaches the database
+        pendingLocations.put(driverId, new PendingLocation(lon, lat));
+        driverLocationIndexService.updateLocation(driverId, lon, lat);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${driver.location.flushIntervalInMillis}")
+    public int flushPendingLocations() {
+        if (pendingLocations.isEmpty()) return 0;
+
+        List<Object[]> batch = new ArrayList<>(pendingLocations.size());
+        for (Long driverId : pendingLocations.keySet()) {
+            PendingLocation location = pendingLocations.remove(driverId);
+            if (location != null) batch.add(new Object[]{location.lon, location.lat, driverId});
+        }
+
+        try {
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(UPDATE_LOCATION_SQL, batch.subList(from, Math.min(from + batchSize, batch.size())));
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush driver locations: " + e.getLocalizedMessage());
+            // keep newer pings that arrived while flushing, requeue the rest for the next run
+            batch.forEach(row -> pendingLocations.putIfAbsent((Long) row[2], new PendingLocation((Double) row[0], (Double) row[1])));
+            return 0;
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingLocations();
+    }
+
+    private static final class PendingLocation {
+        private final double lon;
+        private final double lat;
+
+        private PendingLocation(double lon, double lat) {
+            this.lon = lon;
+            this.lat = lat;
+        }
+    }
+}
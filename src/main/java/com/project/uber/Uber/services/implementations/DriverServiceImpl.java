@@ -2,23 +2,22 @@ package com.project.uber.Uber.services.implementations;
 
 import com.project.uber.Uber.dto.DriverDto;
 import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.dto.RideStartDto;
 import com.project.uber.Uber.dto.RiderDto;
 import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.Ride;
 import com.project.uber.Uber.entities.RideRequest;
-import com.project.uber.Uber.entities.User;
 import com.project.uber.Uber.entities.enums.RideRequestStatus;
 import com.project.uber.Uber.entities.enums.RideStatus;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
 import com.project.uber.Uber.exceptions.RuntimeConflictException;
 import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.security.IdentityContext;
 import com.project.uber.Uber.services.*;
-import org.modelmapper.ModelMapper;
+import com.project.uber.Uber.utils.DtoMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.authentication.AuthenticationServiceException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,17 +29,21 @@ public class DriverServiceImpl implements DriverService {
     private final RideRequestService rideRequestService;
     private final DriverRepository driverRepository;
     private final RideService rideService;
-    private final ModelMapper modelMapper;
     private final PaymentService paymentService;
     private final RatingManagementService ratingManagementService;
+    private final DriverLocationIndexService driverLocationIndexService;
+    private final RideOfferService rideOfferService;
+    private final IdentityContext identityContext;
 
-    public DriverServiceImpl(RideRequestService rideRequestService, RatingManagementService ratingManagementService, DriverRepository driverRepository, RideService rideService, ModelMapper modelMapper, PaymentService paymentService) {
+    public DriverServiceImpl(RideRequestService rideRequestService, RatingManagementService ratingManagementService, DriverRepository driverRepository, RideService rideService, PaymentService paymentService, DriverLocationIndexService driverLocationIndexService, RideOfferService rideOfferService, IdentityContext identityContext) {
         this.rideRequestService = rideRequestService;
         this.driverRepository = driverRepository;
         this.rideService = rideService;
-        this.modelMapper = modelMapper;
         this.paymentService = paymentService;
         this.ratingManagementService = ratingManagementService;
+        this.driverLocationIndexService = driverLocationIndexService;
+        this.rideOfferService = rideOfferService;
+        this.identityContext = identityContext;
     }
 
     @Override
@@ -51,12 +54,19 @@ public class DriverServiceImpl implements DriverService {
         Driver driver = getCurrentDriver();
 
         validateRequest(rideRequest, driver);
+        rideOfferService.claimOffer(rideRequestId, driver.getId());
+        rideRequestService.claimRideRequest(rideRequestId, driver.getId());
 
         Driver savedDriver = updateDriverAvailability(driver,false);
 
         Ride ride = rideService.createNewRide(rideRequest, savedDriver);
 
-        return modelMapper.map(ride, DriverRideDto.class);
+        return DtoMapper.toDriverRideDto(ride);
+    }
+
+    @Override
+    public void declineRide(Long rideRequestId) {
+        rideOfferService.declineOffer(rideRequestId, identityContext.getDriverId());
     }
 
     @Override
@@ -71,7 +81,7 @@ public class DriverServiceImpl implements DriverService {
         Ride savedRide = rideService.updateRideStatus(ride, RideStatus.CANCELLED);
 
 
-        return modelMapper.map(savedRide, DriverRideDto.class);
+        return DtoMapper.toDriverRideDto(savedRide);
     }
 
     @Override
@@ -92,7 +102,7 @@ public class DriverServiceImpl implements DriverService {
         paymentService.createNewPayment(savedRide);
         ratingManagementService.createNewRating(savedRide);
 
-        return modelMapper.map(savedRide, DriverRideDto.class);
+        return DtoMapper.toDriverRideDto(savedRide);
     }
 
     @Override
@@ -108,13 +118,13 @@ public class DriverServiceImpl implements DriverService {
         Ride savedRide = rideService.updateRideStatus(ride, RideStatus.ENDED);
         updateDriverAvailability(driver, true);
         paymentService.processPayment(savedRide);
-        return modelMapper.map(savedRide, DriverRideDto.class);
+        return DtoMapper.toDriverRideDto(savedRide);
     }
 
     @Override
     public DriverDto getDriverProfile() {
         Driver driver = getCurrentDriver();
-        return modelMapper.map(driver, DriverDto.class);
+        return DtoMapper.toDriverDto(driver);
     }
 
     @Override
@@ -135,17 +145,18 @@ public class DriverServiceImpl implements DriverService {
         Driver driver = getCurrentDriver();
         return rideService
                 .getAllRidesOfDriver(driver,pageRequest)
-                .map(ride -> modelMapper.map(ride, DriverRideDto.class));
+                .map(ride -> DtoMapper.toDriverRideDto(ride));
     }
 
     @Override
-    public Driver getCurrentDriver() {
+    public RideHistoryDto<DriverRideDto> getMyRideHistory(String cursor, Integer size) {
+        return rideService.getRideHistoryOfDriver(identityContext.getDriverId(), cursor, size);
+    }
 
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    @Override
+    public Driver getCurrentDriver() {
 
-        return driverRepository
-                .findByUser(user)
-                .orElseThrow(()-> new AuthenticationServiceException("No driver was found!"));
+        return driverRepository.getReferenceById(identityContext.getDriverId());
     }
 
     @Override
@@ -155,23 +166,19 @@ public class DriverServiceImpl implements DriverService {
                 .orElseThrow(()-> new ResourceNotFoundException("No driver was found with ID: "+driverId));
     }
 
-    @Override
-    public Driver updateRating(Driver driver, Double rating) {
-        driver.setRating(rating);
-        Driver savedDriver = driverRepository.save(driver);
-        return savedDriver;
-    }
-
     @Override
     public Driver updateDriverAvailability(Driver driver, boolean available) {
         driver.setAvailable(available);
         Driver savedDriver = driverRepository.save(driver);
+        driverLocationIndexService.indexDriver(savedDriver);
         return savedDriver;
     }
 
     @Override
     public Driver createNewDriver(Driver createDriver) {
-        return driverRepository.save(createDriver);
+        Driver savedDriver = driverRepository.save(createDriver);
+        driverLocationIndexService.indexDriver(savedDriver);
+        return savedDriver;
     }
 
     private void validateRequest(RideRequest rideRequest, Driver driver) {
@@ -195,7 +202,7 @@ public class DriverServiceImpl implements DriverService {
                     String.format("Invalid ride status! Expected: %s, Found: %s", expectedStatus, ride.getStatus())
             );
         }
-        if (ride.getDriver() == null || !ride.getDriver().equals(driver)) {
+        if (ride.getDriver() == null || !ride.getDriver().getId().equals(driver.getId())) {
             throw new RuntimeConflictException("The provided driver does not own this ride.");
         }
     }
@@ -0,0 +1,229 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.services.DistanceCalculationService;
+import com.project.uber.Uber.services.FareMatrixService;
+import com.project.uber.Uber.utils.GeometryUtil;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class FareMatrixServiceImpl implements FareMatrixService {
+
+    private static final Logger log = Logger.getLogger(FareMatrixServiceImpl.class);
+
+    private static final int MAGIC = 0x5846524D;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + 3 * Double.BYTES;
+
+    private final DistanceCalculationService routingDistanceService;
+    private final boolean enabled;
+    private final Path matrixPath;
+    private final double minLon;
+    private final double minLat;
+    private final double maxLon;
+    private final double maxLat;
+    private final double zoneSizeInDegrees;
+    private final double minTripInKm;
+    private final double maxTripInKm;
+    private final int batchSize;
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile ZoneMatrix matrix;
+
+    public FareMatrixServiceImpl(@Qualifier("routingDistanceService") DistanceCalculationService routingDistanceService,
+                                 @Value("${fare.matrix.enabled}") boolean enabled,
+                                 @Value("${fare.matrix.path}") String matrixPath,
+                                 @Value("${fare.matrix.minLon}") double minLon,
+                                 @Value("${fare.matrix.minLat}") double minLat,
+                                 @Value("${fare.matrix.maxLon}") double maxLon,
+                                 @Value("${fare.matrix.maxLat}") double maxLat,
+                                 @Value("${fare.matrix.zoneSizeInDegrees}") double zoneSizeInDegrees,
+                                 @Value("${fare.matrix.minTripInKm}") double minTripInKm,
+                                 @Value("${fare.matrix.maxTripInKm}") double maxTripInKm,
+                                 @Value("${fare.matrix.batchSize}") int batchSize) {
+        this.routingDistanceService = routingDistanceService;
+        this.enabled = enabled;
+        this.matrixPath = Path.of(matrixPath);
+        this.minLon = minLon;
+        this.minLat = minLat;
+        this.maxLon = maxLon;
+        this.maxLat = maxLat;
+        this.zoneSizeInDegrees = zoneSizeInDegrees;
+        this.minTripInKm = minTripInKm;
+        this.maxTripInKm = maxTripInKm;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMatrix() {
+        if (!enabled) return;
+        if (Files.exists(matrixPath)) {
+            try {
+                matrix = ZoneMatrix.load(matrixPath);
+                log.info("Fare matrix with " + matrix.zoneCount() + " zones loaded from " + matrixPath);
+                return;
+            } catch (IOException e) {
+                log.warn("Could not load fare matrix from " + matrixPath + ": " + e.getMessage());
+            }
+        }
+        Thread.ofVirtual().name("fare-matrix-build").start(this::rebuildMatrix);
+    }
+
+    @Override
+    public Double findDistance(Point src, Point des) {
+        ZoneMatrix current = matrix;
+        if (current == null) return null;
+
+        double greatCircleInKm = GeometryUtil.distanceInMeters(src, des) / 1000.0;
+        // short trips are dominated by the zone error and long ones are better served by a real route
+        if (greatCircleInKm < minTripInKm || greatCircleInKm > maxTripInKm) return null;
+
+        int srcZone = current.zoneOf(src.getX(), src.getY());
+        int desZone = current.zoneOf(des.getX(), des.getY());
+        if (srcZone < 0 || desZone < 0) return null;
+
+        float zoneDistance = current.distance(srcZone, desZone);
+        if (Float.isNaN(zoneDistance)) return null;
+
+        // carry the detour ratio measured between the centroids over to the actual points
+        double centroidInKm = GeometryUtil.distanceInMeters(current.centroidLon(srcZone), current.centroidLat(srcZone),
+                current.centroidLon(desZone), current.centroidLat(desZone)) / 1000.0;
+        if (centroidInKm < minTripInKm) return null;
+        return zoneDistance * (greatCircleInKm / centroidInKm);
+    }
+
+    // only hands off: the rebuild makes thousands of blocking routing calls and must not hold the shared scheduler thread
+    @Scheduled(cron = "${fare.matrix.rebuildCron}")
+    public void scheduleRebuild() {
+        if (!enabled || rebuilding.get()) return;
+        Thread.ofVirtual().name("fare-matrix-build").start(this::rebuildMatrix);
+    }
+
+    @Override
+    public void rebuildMatrix() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) return;
+        long start = System.currentTimeMillis();
+        try {
+            int columns = (int) Math.ceil((maxLon - minLon) / zoneSizeInDegrees);
+            int rows = (int) Math.ceil((maxLat - minLat) / zoneSizeInDegrees);
+            int zoneCount = columns * rows;
+
+            List<Point> centroids = new ArrayList<>(zoneCount);
+            for (int zone = 0; zone < zoneCount; zone++) {
+                centroids.add(geometryFactory.createPoint(new Coordinate(
+                        minLon + (zone % columns + 0.5) * zoneSizeInDegrees,
+                        minLat + (zone / columns + 0.5) * zoneSizeInDegrees)));
+            }
+
+            Path temporary = matrixPath.resolveSibling(matrixPath.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(columns).putInt(rows)
+                        .putDouble(minLon).putDouble(minLat).putDouble(zoneSizeInDegrees)
+                        .flip();
+                channel.write(header);
+
+                // bulk one-to-many routing calls per origin zone (bounded by the routing table size), written out row by row
+                ByteBuffer row = ByteBuffer.allocate(zoneCount * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int origin = 0; origin < zoneCount; origin++) {
+                    row.clear();
+                    for (int from = 0; from < zoneCount; from += batchSize) {
+                        List<Point> destinations = centroids.subList(from, Math.min(from + batchSize, zoneCount));
+                        for (Double distance : routingDistanceService.calculateDistances(centroids.get(origin), destinations)) {
+                            row.putFloat(distance != null ? distance.floatValue() : Float.NaN);
+                        }
+                    }
+                    row.flip();
+                    while (row.hasRemaining()) channel.write(row);
+                }
+            }
+            Files.move(temporary, matrixPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            matrix = ZoneMatrix.load(matrixPath);
+            log.info("Fare matrix with " + zoneCount + " zones rebuilt in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (IOException | RuntimeException e) {
+            log.error("Fare matrix rebuild failed, keeping the previous matrix: " + e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private static final class ZoneMatrix {
+        private final int columns;
+        private final int rows;
+        private final double originLon;
+        private final double originLat;
+        private final double zoneSize;
+        private final FloatBuffer distances;
+
+        private ZoneMatrix(ByteBuffer buffer) throws IOException {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported fare matrix file format");
+            }
+            columns = buffer.getInt(8);
+            rows = buffer.getInt(12);
+            originLon = buffer.getDouble(16);
+            originLat = buffer.getDouble(24);
+            zoneSize = buffer.getDouble(32);
+            long zoneCount = (long) columns * rows;
+            distances = buffer
+                    .slice(HEADER_BYTES, Math.toIntExact(zoneCount * zoneCount * Float.BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asFloatBuffer();
+        }
+
+        private static ZoneMatrix load(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return new ZoneMatrix(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        private int zoneCount() {
+            return columns * rows;
+        }
+
+        private int zoneOf(double lon, double lat) {
+            int column = (int) Math.floor((lon - originLon) / zoneSize);
+            int row = (int) Math.floor((lat - originLat) / zoneSize);
+            if (column < 0 || column >= columns || row < 0 || row >= rows) return -1;
+            return row * columns + column;
+        }
+
+        private double centroidLon(int zone) {
+            return originLon + (zone % columns + 0.5) * zoneSize;
+        }
+
+        private double centroidLat(int zone) {
+            return originLat + (zone / columns + 0.5) * zoneSize;
+        }
+
+        private float distance(int srcZone, int desZone) {
+            return distances.get(srcZone * zoneCount() + desZone);
+        }
+    }
+}
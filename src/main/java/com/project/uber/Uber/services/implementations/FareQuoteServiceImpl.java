@@ -0,0 +1,151 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.uber.Uber.dto.FareQuoteDto;
+import com.project.uber.Uber.entities.RideRequest;
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.security.JwtService;
+import com.project.uber.Uber.services.FareQuoteService;
+import com.project.uber.Uber.strategies.mangers.RideFareCalculationStrategyManager;
+import com.project.uber.Uber.utils.GeometryUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class FareQuoteServiceImpl implements FareQuoteService {
+
+    private final RideFareCalculationStrategyManager rideFareCalculationStrategyManager;
+    private final JwtService jwtService;
+    private final double gridSizeInDegrees;
+    private final Duration validity;
+    // fares are computed here, outside the cache's compute, since the strategies call the distance service
+    private final ExecutorService fareExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<QuoteKey, Double> fares;
+
+    public FareQuoteServiceImpl(RideFareCalculationStrategyManager rideFareCalculationStrategyManager,
+                                JwtService jwtService,
+                                MeterRegistry meterRegistry,
+                                @Value("${fare.quote.gridSizeInDegrees}") double gridSizeInDegrees,
+                                @Value("${fare.quote.validityInSeconds}") long validityInSeconds,
+                                @Value("${fare.quote.cacheTtlInSeconds}") long cacheTtlInSeconds,
+                                @Value("${fare.quote.cacheMaximumSize}") long cacheMaximumSize) {
+        this.rideFareCalculationStrategyManager = rideFareCalculationStrategyManager;
+        this.jwtService = jwtService;
+        this.gridSizeInDegrees = gridSizeInDegrees;
+        this.validity = Duration.ofSeconds(validityInSeconds);
+        this.fares = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlInSeconds))
+                .recordStats()
+                .executor(fareExecutor)
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, fares, "fareQuote");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fareExecutor.shutdown();
+    }
+
+    @Override
+    public FareQuoteDto getFareQuote(FareQuoteDto fareQuoteDto) {
+        RideRequest rideRequest = new RideRequest();
+        rideRequest.setPickUpLocation(GeometryUtil.createPoint(fareQuoteDto.getPickUpLocation()));
+        rideRequest.setDropOffLocation(GeometryUtil.createPoint(fareQuoteDto.getDropOffLocation()));
+
+        QuoteKey key = new QuoteKey(cell(rideRequest.getPickUpLocation()), cell(rideRequest.getDropOffLocation()));
+        double fare;
+        try {
+            fare = fares.get(key, (ignored, executor) -> CompletableFuture.supplyAsync(() -> rideFareCalculationStrategyManager
+                    .rideFareCalculation(rideRequest.getPickUpLocation())
+                    .calculateFare(rideRequest), executor)).join();
+        } catch (CompletionException e) {
+            // failed calculations are not cached; rethrow the original so the usual error mapping applies
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+
+        User user = (User) SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getPrincipal();
+        Instant expiresAt = Instant.now().plus(validity);
+        String quoteToken = jwtService.getFareQuoteToken(user.getId(),
+                fareQuoteDto.getPickUpLocation().getCoordinates(),
+                fareQuoteDto.getDropOffLocation().getCoordinates(),
+                fare,
+                Date.from(expiresAt));
+
+        return new FareQuoteDto(fareQuoteDto.getPickUpLocation(), fareQuoteDto.getDropOffLocation(), fare, quoteToken, expiresAt);
+    }
+
+    @Override
+    public double redeemFareQuote(String quoteToken, RideRequest rideRequest, Long userId) {
+        Claims claims;
+        try {
+            claims = jwtService.getFareQuoteClaims(quoteToken);
+        } catch (JwtException e) {
+            throw new RuntimeConflictException("Fare quote is invalid or has expired");
+        }
+
+        if (!String.valueOf(userId).equals(claims.getSubject())
+                || !sameCell(claims.get("pickUp", List.class), rideRequest.getPickUpLocation())
+                || !sameCell(claims.get("dropOff", List.class), rideRequest.getDropOffLocation())) {
+            throw new RuntimeConflictException("Fare quote does not match this ride request");
+        }
+        return ((Number) claims.get("fare")).doubleValue();
+    }
+
+    // locations are compared on the quote grid so re-serialised coordinates still match
+    private boolean sameCell(List<?> quoted, Point location) {
+        if (quoted == null || quoted.size() != 2) return false;
+        double lon = ((Number) quoted.get(0)).doubleValue();
+        double lat = ((Number) quoted.get(1)).doubleValue();
+        return GeometryUtil.cellKey(lon, lat, gridSizeInDegrees) == cell(location);
+    }
+
+    private long cell(Point point) {
+        return GeometryUtil.cellKey(point.getX(), point.getY(), gridSizeInDegrees);
+    }
+
+    private static final class QuoteKey {
+        private final long pickUpCell;
+        private final long dropOffCell;
+
+        private QuoteKey(long pickUpCell, long dropOffCell) {
+            this.pickUpCell = pickUpCell;
+            this.dropOffCell = dropOffCell;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QuoteKey other)) return false;
+            return pickUpCell == other.pickUpCell && dropOffCell == other.dropOffCell;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pickUpCell, dropOffCell);
+        }
+    }
+}
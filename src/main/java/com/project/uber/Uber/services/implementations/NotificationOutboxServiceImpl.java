@@ -0,0 +1,268 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.entities.enums.NotificationStatus;
+import com.project.uber.Uber.repositories.NotificationOutboxRepository;
+import com.project.uber.Uber.services.NotificationOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+
+    private static final Logger log = Logger.getLogger(NotificationOutboxServiceImpl.class);
+
+    // claimed rows are leased by pushing next_attempt_at forward, so a crashed worker's batch is retried later
+    private static final String CLAIM_SQL =
+            "UPDATE notification_outbox SET next_attempt_at = ?, attempts = attempts + 1 " +
+            "WHERE id IN (SELECT id FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipients, subject, body, attempts";
+    private static final String MARK_SENT_SQL =
+            "UPDATE notification_outbox SET status = 'SENT', last_error = NULL WHERE id = ?";
+    private static final String MARK_FAILED_SQL =
+            "UPDATE notification_outbox SET status = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+    // next_attempt_at of a SENT row is the end of the lease it was sent under, close enough to the send time
+    private static final String PURGE_SENT_SQL =
+            "DELETE FROM notification_outbox WHERE id IN (SELECT id FROM notification_outbox " +
+            "WHERE status = 'SENT' AND next_attempt_at < ? LIMIT ?)";
+
+    private final JavaMailSender javaMailSender;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final int batchSize;
+    private final int messagesPerConnection;
+    private final int maxAttempts;
+    private final long backoffInSeconds;
+    private final long maxBackoffInSeconds;
+    private final long leaseInSeconds;
+    private final long pollIntervalInMillis;
+    private final long sendTimeoutInMillis;
+    private final long sentRetentionInHours;
+    private final long purgeIntervalInMinutes;
+    private final int purgeBatchSize;
+    private final ExecutorService senderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // the drain loop blocks on SMTP, so it gets its own thread instead of the shared @Scheduled one
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer sendLatency;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public NotificationOutboxServiceImpl(JavaMailSender javaMailSender,
+                                         JdbcTemplate jdbcTemplate,
+                                         NotificationOutboxRepository notificationOutboxRepository,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${notification.outbox.batchSize}") int batchSize,
+                                         @Value("${notification.outbox.messagesPerConnection}") int messagesPerConnection,
+                                         @Value("${notification.outbox.maxAttempts}") int maxAttempts,
+                                         @Value("${notification.outbox.backoffInSeconds}") long backoffInSeconds,
+                                         @Value("${notification.outbox.maxBackoffInSeconds}") long maxBackoffInSeconds,
+                                         @Value("${notification.outbox.leaseInSeconds}") long leaseInSeconds,
+                                         @Value("${notification.outbox.pollIntervalInMillis}") long pollIntervalInMillis,
+                                         @Value("${notification.outbox.sendTimeoutInSeconds}") long sendTimeoutInSeconds,
+                                         @Value("${notification.outbox.sentRetentionInHours}") long sentRetentionInHours,
+                                         @Value("${notification.outbox.purgeIntervalInMinutes}") long purgeIntervalInMinutes,
+                                         @Value("${notification.outbox.purgeBatchSize}") int purgeBatchSize) {
+        this.javaMailSender = javaMailSender;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.batchSize = batchSize;
+        this.messagesPerConnection = messagesPerConnection;
+        this.maxAttempts = maxAttempts;
+        this.backoffInSeconds = backoffInSeconds;
+        this.maxBackoffInSeconds = maxBackoffInSeconds;
+        this.leaseInSeconds = leaseInSeconds;
+        this.pollIntervalInMillis = pollIntervalInMillis;
+        this.sendTimeoutInMillis = TimeUnit.SECONDS.toMillis(sendTimeoutInSeconds);
+        this.sentRetentionInHours = sentRetentionInHours;
+        this.purgeIntervalInMinutes = purgeIntervalInMinutes;
+        this.purgeBatchSize = purgeBatchSize;
+        this.sendLatency = Timer.builder("notification.send.latency").register(meterRegistry);
+        this.sent = Counter.builder("notification.delivery").tag("outcome", "sent").register(meterRegistry);
+        this.retried = Counter.builder("notification.delivery").tag("outcome", "retry").register(meterRegistry);
+        this.failed = Counter.builder("notification.delivery").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("notification.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startDispatcher() {
+        dispatcher.scheduleWithFixedDelay(this::processOutbox, pollIntervalInMillis, pollIntervalInMillis, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::purgeSent, purgeIntervalInMinutes, purgeIntervalInMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senderExecutor.shutdown();
+    }
+
+    @Override
+    public int processOutbox() {
+        int processed = 0;
+        try {
+            List<OutboxMessage> claimed;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxMessage(
+                                rs.getLong("id"),
+                                rs.getString("recipients"),
+                                rs.getString("subject"),
+                                rs.getString("body"),
+                                rs.getInt("attempts")),
+                        Timestamp.valueOf(now.plusSeconds(leaseInSeconds)),
+                        Timestamp.valueOf(now),
+                        batchSize);
+                if (!claimed.isEmpty()) deliver(claimed);
+                processed += claimed.size();
+            } while (claimed.size() == batchSize);
+
+            pending.set(notificationOutboxRepository.countByStatus(NotificationStatus.PENDING));
+        } catch (RuntimeException e) {
+            log.error("Notification outbox poll failed: " + e.getMessage());
+        }
+        return processed;
+    }
+
+    private void deliver(List<OutboxMessage> messages) {
+        // each chunk goes out over a single SMTP connection, chunks are sent in parallel
+        List<Future<?>> sends = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += messagesPerConnection) {
+            List<OutboxMessage> chunk = messages.subList(from, Math.min(from + messagesPerConnection, messages.size()));
+            sends.add(senderExecutor.submit(() -> sendChunk(chunk)));
+        }
+
+        // a hung SMTP server must not hold the dispatcher; timed-out chunks are retried once their lease ends
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutInMillis);
+        for (int i = 0; i < sends.size(); i++) {
+            Future<?> send = sends.get(i);
+            try {
+                send.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Notification send task failed: " + e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                send.cancel(true);
+                int from = i * messagesPerConnection;
+                for (OutboxMessage message : messages.subList(from, Math.min(from + messagesPerConnection, messages.size()))) {
+                    if (message.error == null) message.error = "Send timed out after " + sendTimeoutInMillis + " ms";
+                }
+            }
+        }
+
+        List<Object[]> sentRows = new ArrayList<>();
+        List<Object[]> failedRows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : messages) {
+            if (message.error == null) {
+                sentRows.add(new Object[]{message.id});
+                sent.increment();
+                continue;
+            }
+            boolean exhausted = message.attempts >= maxAttempts;
+            long backoff = Math.min(backoffInSeconds << Math.min(message.attempts - 1, 20), maxBackoffInSeconds);
+            failedRows.add(new Object[]{
+                    (exhausted ? NotificationStatus.FAILED : NotificationStatus.PENDING).name(),
+                    Timestamp.valueOf(now.plusSeconds(backoff)),
+                    message.error,
+                    message.id});
+            (exhausted ? failed : retried).increment();
+        }
+        if (!sentRows.isEmpty()) jdbcTemplate.batchUpdate(MARK_SENT_SQL, sentRows);
+        if (!failedRows.isEmpty()) jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failedRows);
+    }
+
+    @Override
+    public int purgeSent() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(sentRetentionInHours));
+        int purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SENT_SQL, cutoff, purgeBatchSize);
+                purged += deleted;
+            } while (deleted == purgeBatchSize);
+            if (purged > 0) log.info("Purged " + purged + " sent notifications older than " + sentRetentionInHours + " h");
+        } catch (RuntimeException e) {
+            log.error("Notification outbox purge failed: " + e.getMessage());
+        }
+        return purged;
+    }
+
+    private void sendChunk(List<OutboxMessage> chunk) {
+        SimpleMailMessage[] mailMessages = new SimpleMailMessage[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            OutboxMessage message = chunk.get(i);
+            SimpleMailMessage mailMessage = new SimpleMailMessage();
+            mailMessage.setTo(message.recipients.split(","));
+            mailMessage.setSubject(message.subject);
+            mailMessage.setText(message.body);
+            mailMessages[i] = mailMessage;
+        }
+
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(mailMessages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < chunk.size(); i++) {
+                Exception failure = failedMessages.isEmpty() ? e : failedMessages.get(mailMessages[i]);
+                if (failure != null) chunk.get(i).error = failure.getMessage();
+            }
+        } catch (MailException e) {
+            chunk.forEach(message -> message.error = e.getMessage());
+        } finally {
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class OutboxMessage {
+        private final long id;
+        private final String recipients;
+        private final String subject;
+        private final String body;
+        private final int attempts;
+        private volatile String error;
+
+        private OutboxMessage(long id, String recipients, String subject, String body, int attempts) {
+            this.id = id;
+            this.recipients = recipients;
+            this.subject = subject;
+            this.body = body;
+            this.attempts = attempts;
+        }
+    }
+}
@@ -1,56 +1,38 @@
 package com.project.uber.Uber.services.implementations;
 
-import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.entities.NotificationOutbox;
+import com.project.uber.Uber.entities.enums.NotificationStatus;
+import com.project.uber.Uber.repositories.NotificationOutboxRepository;
 import com.project.uber.Uber.services.NotificationService;
-import org.apache.log4j.Logger;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
+    private final NotificationOutboxRepository notificationOutboxRepository;
 
-    private static final Logger log = Logger.getLogger(NotificationServiceImpl.class);
-    private final JavaMailSender javaMailSender;
-
-    public NotificationServiceImpl(JavaMailSender javaMailSender) {
-        this.javaMailSender = javaMailSender;
+    public NotificationServiceImpl(NotificationOutboxRepository notificationOutboxRepository) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
     }
 
     @Override
     public void sendEmail(String to, String subject, String body) {
-        try{
-            SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-            simpleMailMessage.setTo(to);
-            simpleMailMessage.setSubject(subject);
-            simpleMailMessage.setText(body);
-
-            javaMailSender.send(simpleMailMessage);
-
-            log.info("Email sent successfully!");
-        } catch (Exception e){
-            log.error(e.getLocalizedMessage());
-            throw new RuntimeConflictException(e.getLocalizedMessage());
-        }
-
+        sendEmail(new String[]{to}, subject, body);
     }
 
+    // written to the outbox as part of the caller's transaction; NotificationOutboxService delivers it after commit
     @Override
     public void sendEmail(String[] to, String subject, String body) {
-        try{
-            SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-            simpleMailMessage.setTo(to);
-            simpleMailMessage.setSubject(subject);
-            simpleMailMessage.setText(body);
-
-            javaMailSender.send(simpleMailMessage);
-
-            log.info("Email sent successfully!");
-        } catch (Exception e){
-            log.error(e.getLocalizedMessage());
-            throw new RuntimeConflictException(e.getLocalizedMessage());
-        }
+        NotificationOutbox notification = new NotificationOutbox.NotificationOutboxBuilder()
+                .recipients(String.join(",", to))
+                .subject(subject)
+                .body(body)
+                .status(NotificationStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        notificationOutboxRepository.save(notification);
     }
 
 }
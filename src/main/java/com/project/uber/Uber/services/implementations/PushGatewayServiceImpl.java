@@ -0,0 +1,111 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.dto.PushEventDto;
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.exceptions.ServiceUnavailableException;
+import com.project.uber.Uber.services.PushGatewayService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class PushGatewayServiceImpl implements PushGatewayService {
+
+    private final int maxConnections;
+    private final int bufferSize;
+    private final Duration heartbeatInterval;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter rejected;
+
+    public PushGatewayServiceImpl(MeterRegistry meterRegistry,
+                                  @Value("${push.maxConnections}") int maxConnections,
+                                  @Value("${push.bufferSize}") int bufferSize,
+                                  @Value("${push.heartbeatInSeconds}") long heartbeatInSeconds) {
+        this.maxConnections = maxConnections;
+        this.bufferSize = bufferSize;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatInSeconds);
+        this.delivered = Counter.builder("push.events").tag("outcome", "delivered").register(meterRegistry);
+        this.dropped = Counter.builder("push.events").tag("outcome", "dropped").register(meterRegistry);
+        this.rejected = Counter.builder("push.connections.rejected").register(meterRegistry);
+        Gauge.builder("push.connections.active", connections, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("push.connections.max", () -> maxConnections).register(meterRegistry);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<PushEventDto>> connect() {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = user.getId();
+
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            rejected.increment();
+            throw new ServiceUnavailableException("Push connection limit reached, retry later");
+        }
+        Channel channel = channels.compute(userId, (id, existing) -> {
+            Channel current = existing != null ? existing : new Channel();
+            current.subscribers++;
+            return current;
+        });
+
+        // a slow client only ever holds bufferSize events, the oldest are dropped first
+        Flux<ServerSentEvent<PushEventDto>> events = channel.sink.asFlux()
+                .onBackpressureBuffer(bufferSize, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        Flux<ServerSentEvent<PushEventDto>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<PushEventDto>builder().comment("heartbeat").build());
+
+        return Flux.merge(events, heartbeats)
+                .doFinally(signal -> disconnect(userId, channel));
+    }
+
+    @Override
+    public boolean push(Long userId, String event, PushEventDto payload) {
+        Channel channel = channels.get(userId);
+        if (channel == null) return false;
+
+        ServerSentEvent<PushEventDto> serverSentEvent = ServerSentEvent.<PushEventDto>builder()
+                .event(event)
+                .data(payload)
+                .build();
+        Sinks.EmitResult result;
+        synchronized (channel) {
+            result = channel.sink.tryEmitNext(serverSentEvent);
+        }
+        if (result.isFailure()) return false;
+        delivered.increment();
+        return true;
+    }
+
+    @Override
+    public int activeConnections() {
+        return connections.get();
+    }
+
+    private void disconnect(Long userId, Channel channel) {
+        connections.decrementAndGet();
+        channels.computeIfPresent(userId, (id, current) -> {
+            if (current != channel) return current;
+            return --current.subscribers == 0 ? null : current;
+        });
+    }
+
+    // one sink per user, shared by all of the user's open connections
+    private static final class Channel {
+        private final Sinks.Many<ServerSentEvent<PushEventDto>> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
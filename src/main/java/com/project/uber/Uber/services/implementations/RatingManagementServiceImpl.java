@@ -8,13 +8,25 @@ import com.project.uber.Uber.entities.Ride;
 import com.project.uber.Uber.entities.Rider;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
 import com.project.uber.Uber.exceptions.RuntimeConflictException;
-import com.project.uber.Uber.repositories.DriverRepository;
 import com.project.uber.Uber.repositories.RatingRepository;
-import com.project.uber.Uber.repositories.RiderRepository;
+import com.project.uber.Uber.services.DriverLocationIndexService;
 import com.project.uber.Uber.services.RatingManagementService;
+import com.project.uber.Uber.utils.DtoMapper;
+import com.project.uber.Uber.utils.TransactionUtil;
 import org.apache.log4j.Logger;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 @Service
@@ -22,62 +34,87 @@ public class RatingManagementServiceImpl implements RatingManagementService {
 
 
     private static final Logger log = Logger.getLogger(RatingManagementServiceImpl.class);
-    private final RatingRepository ratingRepository;
-    private final DriverRepository driverRepository;
-    private final RiderRepository riderRepository;
-    private final ModelMapper modelMapper;
 
-    public RatingManagementServiceImpl(RatingRepository ratingRepository, ModelMapper modelMapper, DriverRepository driverRepository, RiderRepository riderRepository) {
+    // Postgres evaluates every SET expression against the old row, so the mean uses the incremented aggregates
+    static final String RATE_DRIVER_SQL =
+            "UPDATE driver SET rating_count = rating_count + 1, rating_sum = rating_sum + ?, " +
+            "rating = (rating_sum + ?) / (rating_count + 1) WHERE id = ? RETURNING rating";
+    private static final String RATE_RIDER_SQL =
+            "UPDATE rider SET rating_count = rating_count + 1, rating_sum = rating_sum + ?, " +
+            "rating = (rating_sum + ?) / (rating_count + 1) WHERE id = ? RETURNING rating";
+
+    private static final String BACKFILL_SQL =
+            "UPDATE %1$s t SET rating_count = a.rating_count, rating_sum = a.rating_sum, " +
+            "rating = a.rating_sum / a.rating_count " +
+            "FROM (SELECT %1$s_id AS id, COUNT(*) AS rating_count, SUM(%1$s_rating) AS rating_sum FROM rating " +
+            "WHERE %1$s_id BETWEEN ? AND ? AND %1$s_rating > 0 GROUP BY %1$s_id) a " +
+            "WHERE t.id = a.id";
+
+    // rows without a single real rating go back to zero, clearing stale values a full-row update may have written
+    private static final String RESET_UNRATED_SQL =
+            "UPDATE %1$s t SET rating_count = 0, rating_sum = 0, rating = 0 " +
+            "WHERE t.id BETWEEN ? AND ? AND (t.rating_count <> 0 OR t.rating_sum <> 0 OR t.rating <> 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM rating r WHERE r.%1$s_id = t.id AND r.%1$s_rating > 0)";
+
+    private final RatingRepository ratingRepository;
+    private final DriverLocationIndexService driverLocationIndexService;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean backfillEnabled;
+    private final int backfillChunkSize;
+    private final int backfillParallelism;
+
+    public RatingManagementServiceImpl(RatingRepository ratingRepository,
+                                       DriverLocationIndexService driverLocationIndexService,
+                                       JdbcTemplate jdbcTemplate,
+                                       @Value("${rating.backfill.enabled}") boolean backfillEnabled,
+                                       @Value("${rating.backfill.chunkSize}") int backfillChunkSize,
+                                       @Value("${rating.backfill.parallelism}") int backfillParallelism) {
         this.ratingRepository = ratingRepository;
-        this.driverRepository = driverRepository;
-        this.riderRepository = riderRepository;
-        this.modelMapper = modelMapper;
+        this.driverLocationIndexService = driverLocationIndexService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backfillEnabled = backfillEnabled;
+        this.backfillChunkSize = backfillChunkSize;
+        this.backfillParallelism = backfillParallelism;
     }
 
     @Override
+    @Transactional
     public DriverDto rateDriver(Ride ride, Driver driver, Double rating) {
         Rating ratingObj = ratingRepository
                 .findByRide(ride)
                 .orElseThrow(()-> new ResourceNotFoundException("Rating not found!"));
-        log.info(ratingObj.getDriverRating());
-
-        if(ratingObj.getDriverRating() != 0.0) throw new RuntimeConflictException("Cannot rate driver again!");
-
-        ratingObj.setDriverRating(rating);
-        ratingRepository.save(ratingObj);
-
-        Double newRating = ratingRepository
-                .findByDriver(driver)
-                .stream()
-                .mapToDouble(rating1 -> rating1.getDriverRating())
-                .average()
-                .orElse(0.0);
-        driver.setRating(newRating);
-        Driver driverSaved = driverRepository.save(driver);
-        return modelMapper.map(driverSaved, DriverDto.class);
+
+        if (ratingRepository.setDriverRatingIfUnrated(ratingObj.getId(), rating) == 0) {
+            throw new RuntimeConflictException("Cannot rate driver again!");
+        }
+
+        Double newRating = jdbcTemplate.queryForObject(RATE_DRIVER_SQL, Double.class, rating, rating, driver.getId());
+        Long driverId = driver.getId();
+        TransactionUtil.afterCommit(() -> driverLocationIndexService.updateRating(driverId, newRating));
+
+        // the entity itself is left untouched so that a later flush cannot overwrite the increment
+        DriverDto driverDto = DtoMapper.toDriverDto(driver);
+        driverDto.setRating(newRating);
+        return driverDto;
     }
 
     @Override
+    @Transactional
     public RiderDto rateRider(Ride ride, Rider rider, Double rating) {
 
         Rating ratingObj = ratingRepository
                 .findByRide(ride)
                 .orElseThrow(()-> new ResourceNotFoundException("Rating not found!"));
 
-        if(ratingObj.getRiderRating() != 0.0) throw new RuntimeConflictException("Cannot rate rider again!");
+        if (ratingRepository.setRiderRatingIfUnrated(ratingObj.getId(), rating) == 0) {
+            throw new RuntimeConflictException("Cannot rate rider again!");
+        }
 
-        ratingObj.setRiderRating(rating);
-        ratingRepository.save(ratingObj);
+        Double newRating = jdbcTemplate.queryForObject(RATE_RIDER_SQL, Double.class, rating, rating, rider.getId());
 
-        Double newRating = ratingRepository
-                .findByRider(rider)
-                .stream()
-                .mapToDouble(rating1 -> rating1.getRiderRating())
-                .average()
-                .orElse(0.0);
-        rider.setRating(newRating);
-        Rider savedRider = riderRepository.save(rider);
-        return modelMapper.map(savedRider, RiderDto.class);
+        RiderDto riderDto = DtoMapper.toRiderDto(rider);
+        riderDto.setRating(newRating);
+        return riderDto;
     }
 
     @Override
@@ -93,5 +130,38 @@ public class RatingManagementServiceImpl implements RatingManagementService {
         ratingRepository.save(rating);
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (!backfillEnabled) return;
+        Thread.ofVirtual().name("rating-backfill").start(this::backfillRatingAggregates);
+    }
 
+    // recomputes the aggregates from the rating table in id ranges, several ranges at a time; safe to rerun
+    @Override
+    public void backfillRatingAggregates() {
+        long start = System.currentTimeMillis();
+        try (ExecutorService executor = Executors.newFixedThreadPool(backfillParallelism)) {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (String table : List.of("driver", "rider")) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                if (maxId == null) continue;
+                String sql = String.format(BACKFILL_SQL, table);
+                String resetSql = String.format(RESET_UNRATED_SQL, table);
+                for (long chunkStart = 1; chunkStart <= maxId; chunkStart += backfillChunkSize) {
+                    long from = chunkStart;
+                    long to = chunkStart + backfillChunkSize - 1;
+                    chunks.add(executor.submit(() -> jdbcTemplate.update(sql, from, to) + jdbcTemplate.update(resetSql, from, to)));
+                }
+            }
+
+            int updated = 0;
+            for (Future<Integer> chunk : chunks) updated += chunk.get();
+            log.info("Backfilled rating aggregates of " + updated + " drivers and riders in "
+                    + chunks.size() + " chunks, " + (System.currentTimeMillis() - start) + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Rating backfill failed: " + e.getCause().getMessage());
+        }
+    }
 }
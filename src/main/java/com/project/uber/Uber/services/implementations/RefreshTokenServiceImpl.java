@@ -0,0 +1,150 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.repositories.RevokedTokenRepository;
+import com.project.uber.Uber.services.RefreshTokenService;
+import com.project.uber.Uber.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger log = Logger.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO revoked_token (id, expires_at, revoked_at) VALUES (?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    private static final String EXISTS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM revoked_token WHERE id = ?)";
+    private static final String LOAD_ALL_SQL =
+            "SELECT id FROM revoked_token WHERE expires_at >= ?";
+    private static final String LOAD_SINCE_SQL =
+            "SELECT id FROM revoked_token WHERE revoked_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final long syncOverlapInSeconds;
+    private final AtomicLong entries = new AtomicLong();
+    private final Counter filterNegatives;
+    private final Counter databaseChecks;
+    // the purge rebuild runs on its own thread, so it must not interleave with a sync into the filter it replaces
+    private final Object filterLock = new Object();
+
+    private volatile BloomFilter revokedIds;
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    public RefreshTokenServiceImpl(JdbcTemplate jdbcTemplate,
+                                   RevokedTokenRepository revokedTokenRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${refresh.revocation.expectedTokens}") long expectedTokens,
+                                   @Value("${refresh.revocation.falsePositiveRate}") double falsePositiveRate,
+                                   @Value("${refresh.revocation.syncOverlapInSeconds}") long syncOverlapInSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapInSeconds = syncOverlapInSeconds;
+        this.revokedIds = new BloomFilter(expectedTokens, falsePositiveRate);
+        this.filterNegatives = Counter.builder("auth.revocation.checks").tag("result", "filter").register(meterRegistry);
+        this.databaseChecks = Counter.builder("auth.revocation.checks").tag("result", "database").register(meterRegistry);
+        Gauge.builder("auth.revocation.entries", entries, AtomicLong::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevokedIds() {
+        rebuild();
+    }
+
+    @Override
+    public boolean isRevoked(UUID id) {
+        if (!revokedIds.mightContain(id)) {
+            filterNegatives.increment();
+            return false;
+        }
+        databaseChecks.increment();
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, id));
+    }
+
+    @Override
+    public boolean revoke(UUID id, Instant expiresAt) {
+        int inserted = jdbcTemplate.update(INSERT_SQL, id,
+                Timestamp.valueOf(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault())),
+                Timestamp.valueOf(LocalDateTime.now()));
+        revokedIds.put(id);
+        if (inserted == 1) entries.incrementAndGet();
+        return inserted == 1;
+    }
+
+    // picks up ids revoked on other instances; the overlap absorbs clock skew between nodes
+    @Scheduled(fixedDelayString = "${refresh.revocation.syncIntervalInMillis}")
+    public void syncRevokedIds() {
+        synchronized (filterLock) {
+            LocalDateTime syncStart = LocalDateTime.now();
+            try {
+                BloomFilter filter = revokedIds;
+                jdbcTemplate.query(LOAD_SINCE_SQL,
+                        rs -> { filter.put(rs.getObject(1, UUID.class)); },
+                        Timestamp.valueOf(lastSync.minusSeconds(syncOverlapInSeconds)));
+                lastSync = syncStart;
+            } catch (RuntimeException e) {
+                log.error("Revoked token sync failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // a Bloom filter cannot forget entries, so expired rows are deleted and the filter is rebuilt from the rest
+    // the delete and full reload can take a while, so they run off the shared scheduler thread
+    @Scheduled(cron = "${refresh.revocation.purgeCron}")
+    public void schedulePurge() {
+        Thread.ofVirtual().name("revoked-token-purge").start(() -> {
+            try {
+                purgeExpired();
+            } catch (RuntimeException e) {
+                log.error("Revoked token purge failed: " + e.getMessage());
+            }
+        });
+    }
+
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged " + deleted + " expired revoked tokens");
+        rebuild();
+    }
+
+    private void rebuild() {
+        synchronized (filterLock) {
+            LocalDateTime syncStart = LocalDateTime.now();
+            BloomFilter filter = new BloomFilter(expectedTokens, falsePositiveRate);
+            AtomicLong count = new AtomicLong();
+            jdbcTemplate.query(LOAD_ALL_SQL,
+                    rs -> {
+                        filter.put(rs.getObject(1, UUID.class));
+                        count.incrementAndGet();
+                    },
+                    Timestamp.valueOf(syncStart));
+            revokedIds = filter;
+            lastSync = syncStart;
+            entries.set(count.get());
+            if (count.get() > expectedTokens) {
+                log.warn(count.get() + " revoked tokens exceed refresh.revocation.expectedTokens=" + expectedTokens
+                        + ", the false positive rate will rise");
+            }
+        }
+    }
+}
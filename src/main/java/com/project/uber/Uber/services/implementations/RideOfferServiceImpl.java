@@ -0,0 +1,205 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.dto.PushEventDto;
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.services.NotificationService;
+import com.project.uber.Uber.services.PushGatewayService;
+import com.project.uber.Uber.services.RideOfferService;
+import com.project.uber.Uber.utils.HashedTimingWheel;
+import com.project.uber.Uber.utils.TransactionUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Service
+public class RideOfferServiceImpl implements RideOfferService {
+
+    private static final Logger log = Logger.getLogger(RideOfferServiceImpl.class);
+
+    private final NotificationService notificationService;
+    private final PushGatewayService pushGatewayService;
+    private final int waveSize;
+    private final long offerTimeoutInMillis;
+    private final ExecutorService offerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HashedTimingWheel timingWheel;
+    private final Counter offersSent;
+    private final Counter offersTimedOut;
+    private final Counter offersDeclined;
+    private final Counter dispatchesExhausted;
+
+    private final Map<Long, Dispatch> dispatches = new ConcurrentHashMap<>();
+
+    public RideOfferServiceImpl(NotificationService notificationService,
+                                PushGatewayService pushGatewayService,
+                                MeterRegistry meterRegistry,
+                                @Value("${dispatch.offer.waveSize}") int waveSize,
+                                @Value("${dispatch.offer.timeoutInMillis}") long offerTimeoutInMillis,
+                                @Value("${dispatch.offer.tickInMillis}") long tickInMillis) {
+        this.notificationService = notificationService;
+        this.pushGatewayService = pushGatewayService;
+        this.waveSize = waveSize;
+        this.offerTimeoutInMillis = offerTimeoutInMillis;
+        this.timingWheel = new HashedTimingWheel("ride-offer-timer", tickInMillis, 512, offerExecutor);
+        this.offersSent = Counter.builder("dispatch.offers").tag("outcome", "sent").register(meterRegistry);
+        this.offersTimedOut = Counter.builder("dispatch.offers").tag("outcome", "timeout").register(meterRegistry);
+        this.offersDeclined = Counter.builder("dispatch.offers").tag("outcome", "declined").register(meterRegistry);
+        this.dispatchesExhausted = Counter.builder("dispatch.exhausted").register(meterRegistry);
+        Gauge.builder("dispatch.active", dispatches, Map::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timingWheel.close();
+        offerExecutor.shutdown();
+    }
+
+    @Override
+    public void startDispatch(Long rideRequestId, List<Driver> rankedDrivers) {
+        startDispatch(rideRequestId, rankedDrivers, driverId -> {});
+    }
+
+    @Override
+    public void startDispatch(Long rideRequestId, List<Driver> rankedDrivers, Consumer<Long> offerResolved) {
+        if (rankedDrivers.isEmpty()) {
+            log.info("No drivers matched for ride request " + rideRequestId);
+            return;
+        }
+        Dispatch dispatch = new Dispatch(rideRequestId,
+                rankedDrivers.stream().map(Driver::getId).toArray(Long[]::new),
+                rankedDrivers.stream().map(driver -> driver.getUser().getId()).toArray(Long[]::new),
+                rankedDrivers.stream().map(driver -> driver.getUser().getEmail()).toArray(String[]::new),
+                offerResolved);
+
+        // drivers can only accept once the ride request is committed
+        TransactionUtil.afterCommit(() -> {
+            dispatches.put(rideRequestId, dispatch);
+            synchronized (dispatch) {
+                offerNextWave(dispatch);
+            }
+        });
+    }
+
+    @Override
+    public void declineOffer(Long rideRequestId, Long driverId) {
+        Dispatch dispatch = dispatches.get(rideRequestId);
+        if (dispatch == null) throw new RuntimeConflictException("Ride request "+rideRequestId+" has no open offers");
+
+        synchronized (dispatch) {
+            if (dispatch.closed || !dispatch.currentWave.remove(driverId)) {
+                throw new RuntimeConflictException("Ride request "+rideRequestId+" is not offered to this driver");
+            }
+            offersDeclined.increment();
+            dispatch.offerResolved.accept(driverId);
+            if (dispatch.currentWave.isEmpty() && dispatch.timeout.cancel()) offerNextWave(dispatch);
+        }
+    }
+
+    @Override
+    public void claimOffer(Long rideRequestId, Long driverId) {
+        Dispatch dispatch = dispatches.get(rideRequestId);
+        // requests dispatched before a restart are not tracked here and stay open to any matched driver
+        if (dispatch == null) return;
+
+        synchronized (dispatch) {
+            if (dispatch.closed || !dispatch.currentWave.contains(driverId)) {
+                throw new RuntimeConflictException("Ride request "+rideRequestId+" is not offered to this driver");
+            }
+        }
+        TransactionUtil.afterCommit(() -> {
+            synchronized (dispatch) {
+                dispatch.closed = true;
+                dispatch.timeout.cancel();
+                dispatch.currentWave.forEach(dispatch.offerResolved);
+                dispatch.currentWave.clear();
+            }
+            dispatches.remove(rideRequestId, dispatch);
+        });
+    }
+
+    @Override
+    public int activeDispatches() {
+        return dispatches.size();
+    }
+
+    private void onTimeout(Dispatch dispatch) {
+        synchronized (dispatch) {
+            if (dispatch.closed) return;
+            offersTimedOut.increment(dispatch.currentWave.size());
+            dispatch.currentWave.forEach(dispatch.offerResolved);
+            offerNextWave(dispatch);
+        }
+    }
+
+    // caller holds the dispatch lock
+    private void offerNextWave(Dispatch dispatch) {
+        dispatch.currentWave.clear();
+        if (dispatch.nextCandidate >= dispatch.driverIds.length) {
+            dispatches.remove(dispatch.rideRequestId, dispatch);
+            dispatchesExhausted.increment();
+            log.info("No driver accepted ride request " + dispatch.rideRequestId);
+            return;
+        }
+
+        int end = Math.min(dispatch.nextCandidate + waveSize, dispatch.driverIds.length);
+        String[] emails = new String[end - dispatch.nextCandidate];
+        for (int i = dispatch.nextCandidate; i < end; i++) {
+            dispatch.currentWave.add(dispatch.driverIds[i]);
+            emails[i - dispatch.nextCandidate] = dispatch.emails[i];
+        }
+        dispatch.nextCandidate = end;
+        dispatch.timeout = timingWheel.schedule(() -> onTimeout(dispatch), offerTimeoutInMillis, TimeUnit.MILLISECONDS);
+        offersSent.increment(emails.length);
+
+        PushEventDto offer = new PushEventDto(dispatch.rideRequestId, null, null, null,
+                "Ride request " + dispatch.rideRequestId + " is offered to you for the next "
+                        + offerTimeoutInMillis / 1000 + " seconds");
+        for (int i = end - emails.length; i < end; i++) {
+            pushGatewayService.push(dispatch.userIds[i], "rideOffer", offer);
+        }
+
+        offerExecutor.execute(() -> {
+            try {
+                notificationService.sendEmail(emails, "New Ride Request",
+                        "Ride request " + dispatch.rideRequestId + " is offered to you for the next "
+                                + offerTimeoutInMillis / 1000 + " seconds. Please check your app.");
+            } catch (RuntimeException e) {
+                log.error("Failed to send offer for ride request " + dispatch.rideRequestId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private static final class Dispatch {
+        private final Long rideRequestId;
+        private final Long[] driverIds;
+        private final Long[] userIds;
+        private final String[] emails;
+        private final Consumer<Long> offerResolved;
+        private final Set<Long> currentWave = new HashSet<>();
+        private int nextCandidate;
+        private HashedTimingWheel.Timeout timeout;
+        private boolean closed;
+
+        private Dispatch(Long rideRequestId, Long[] driverIds, Long[] userIds, String[] emails, Consumer<Long> offerResolved) {
+            this.rideRequestId = rideRequestId;
+            this.driverIds = driverIds;
+            this.userIds = userIds;
+            this.emails = emails;
+            this.offerResolved = offerResolved;
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.project.uber.Uber.services.implementations;
 
 import com.project.uber.Uber.entities.RideRequest;
+import com.project.uber.Uber.entities.enums.RideRequestStatus;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
 import com.project.uber.Uber.repositories.RideRequestRepository;
 import com.project.uber.Uber.services.RideRequestService;
+import com.project.uber.Uber.utils.TransactionUtil;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RideRequestServiceImpl implements RideRequestService {
 
     private final RideRequestRepository rideRequestRepository;
 
+    // ride request id -> driver currently claiming it; losers on this node are rejected without touching the database
+    private final Map<Long, Long> claims = new ConcurrentHashMap<>();
+
     public RideRequestServiceImpl(RideRequestRepository rideRequestRepository) {
         this.rideRequestRepository = rideRequestRepository;
     }
@@ -32,4 +43,19 @@ public class RideRequestServiceImpl implements RideRequestService {
         rideRequestRepository.save(rideRequest);
 
     }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimRideRequest(Long rideRequestId, Long driverId) {
+        if (claims.putIfAbsent(rideRequestId, driverId) != null) {
+            throw new RuntimeConflictException("Ride request "+rideRequestId+" has already been accepted");
+        }
+        TransactionUtil.afterCompletion(() -> claims.remove(rideRequestId, driverId));
+
+        // only one transaction can move the row out of PENDING, across all nodes
+        int updated = rideRequestRepository.compareAndSetStatus(rideRequestId, RideRequestStatus.PENDING, RideRequestStatus.CONFIRMED);
+        if (updated == 0) {
+            throw new RuntimeConflictException("Ride request "+rideRequestId+" has already been accepted");
+        }
+    }
 }
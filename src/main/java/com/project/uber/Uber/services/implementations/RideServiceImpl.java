@@ -1,37 +1,59 @@
 package com.project.uber.Uber.services.implementations;
 
 
+import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.PushEventDto;
+import com.project.uber.Uber.dto.RideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.Ride;
 import com.project.uber.Uber.entities.RideRequest;
 import com.project.uber.Uber.entities.Rider;
 import com.project.uber.Uber.entities.enums.RideRequestStatus;
 import com.project.uber.Uber.entities.enums.RideStatus;
+import com.project.uber.Uber.exceptions.BadRequestException;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
 import com.project.uber.Uber.repositories.RideRepository;
 import com.project.uber.Uber.services.NotificationService;
+import com.project.uber.Uber.services.PushGatewayService;
 import com.project.uber.Uber.services.RideRequestService;
 import com.project.uber.Uber.services.RideService;
-import org.modelmapper.ModelMapper;
+import com.project.uber.Uber.utils.DtoMapper;
+import com.project.uber.Uber.utils.TransactionUtil;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
 import static com.project.uber.Uber.utils.GenerateOtp.generateOtp;
 
 @Service
 public class RideServiceImpl implements RideService {
 
-    private final ModelMapper modelMapper;
     private final RideRepository rideRepository;
     private final RideRequestService rideRequestService;
     private final NotificationService notificationService;
+    private final PushGatewayService pushGatewayService;
+    private final int defaultHistoryPageSize;
+    private final int maxHistoryPageSize;
 
-    public RideServiceImpl(ModelMapper modelMapper, RideRepository rideRepository, RideRequestService rideRequestService, NotificationService notificationService) {
-        this.modelMapper = modelMapper;
+    public RideServiceImpl(RideRepository rideRepository, RideRequestService rideRequestService, NotificationService notificationService, PushGatewayService pushGatewayService,
+                           @Value("${ride.history.defaultPageSize}") int defaultHistoryPageSize,
+                           @Value("${ride.history.maxPageSize}") int maxHistoryPageSize) {
         this.rideRepository = rideRepository;
         this.rideRequestService = rideRequestService;
         this.notificationService = notificationService;
+        this.pushGatewayService = pushGatewayService;
+        this.defaultHistoryPageSize = defaultHistoryPageSize;
+        this.maxHistoryPageSize = maxHistoryPageSize;
     }
 
     @Override
@@ -45,7 +67,7 @@ public class RideServiceImpl implements RideService {
     public Ride createNewRide(RideRequest rideRequest, Driver driver) {
 
         rideRequest.setStatus(RideRequestStatus.CONFIRMED);
-        Ride ride = modelMapper.map(rideRequest,Ride.class);
+        Ride ride = DtoMapper.toRide(rideRequest);
         ride.setStatus(RideStatus.CONFIRMED);
         ride.setDriver(driver);
         ride.setOtp(generateOtp());
@@ -58,13 +80,28 @@ public class RideServiceImpl implements RideService {
                 .getEmail(), savedRide
                 .getOtp());
 
+        Long riderUserId = savedRide.getRider().getUser().getId();
+        PushEventDto accepted = new PushEventDto(rideRequest.getId(), savedRide.getId(), savedRide.getStatus(),
+                savedRide.getOtp(), "Your ride was accepted by a driver");
+        TransactionUtil.afterCommit(() -> pushGatewayService.push(riderUserId, "rideAccepted", accepted));
+
         return savedRide;
     }
 
     @Override
     public Ride updateRideStatus(Ride ride, RideStatus rideStatus) {
         ride.setStatus(rideStatus);
-        return rideRepository.save(ride);
+        Ride savedRide = rideRepository.save(ride);
+
+        Long riderUserId = savedRide.getRider().getUser().getId();
+        Long driverUserId = savedRide.getDriver().getUser().getId();
+        PushEventDto statusChanged = new PushEventDto(null, savedRide.getId(), rideStatus, null,
+                "Ride " + savedRide.getId() + " is now " + rideStatus);
+        TransactionUtil.afterCommit(() -> {
+            pushGatewayService.push(riderUserId, "rideStatus", statusChanged);
+            pushGatewayService.push(driverUserId, "rideStatus", statusChanged);
+        });
+        return savedRide;
     }
 
     @Override
@@ -77,6 +114,62 @@ public class RideServiceImpl implements RideService {
         return rideRepository.findByDriver(driver,pageRequest);
     }
 
+    @Override
+    public RideHistoryDto<RideDto> getRideHistoryOfRider(Long riderId, String cursor, Integer size) {
+        Pageable pageRequest = historyPageRequest(size);
+        Slice<RideDto> rides;
+        if (cursor == null || cursor.isBlank()) {
+            rides = rideRepository.findLatestRidesOfRider(riderId, pageRequest);
+        } else {
+            RideHistoryCursor position = decodeCursor(cursor);
+            rides = rideRepository.findRidesOfRiderBefore(riderId, position.createdTime(), position.id(), pageRequest);
+        }
+        return toRideHistory(rides, ride -> encodeCursor(ride.getCreatedTime(), ride.getId()));
+    }
+
+    @Override
+    public RideHistoryDto<DriverRideDto> getRideHistoryOfDriver(Long driverId, String cursor, Integer size) {
+        Pageable pageRequest = historyPageRequest(size);
+        Slice<DriverRideDto> rides;
+        if (cursor == null || cursor.isBlank()) {
+            rides = rideRepository.findLatestRidesOfDriver(driverId, pageRequest);
+        } else {
+            RideHistoryCursor position = decodeCursor(cursor);
+            rides = rideRepository.findRidesOfDriverBefore(driverId, position.createdTime(), position.id(), pageRequest);
+        }
+        return toRideHistory(rides, ride -> encodeCursor(ride.getCreatedTime(), ride.getId()));
+    }
+
+    private Pageable historyPageRequest(Integer size) {
+        int pageSize = size == null ? defaultHistoryPageSize : Math.max(1, Math.min(size, maxHistoryPageSize));
+        return PageRequest.of(0, pageSize);
+    }
+
+    private static <T> RideHistoryDto<T> toRideHistory(Slice<T> rides, Function<T, String> cursorOf) {
+        List<T> content = rides.getContent();
+        String nextCursor = rides.hasNext() && !content.isEmpty() ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        return new RideHistoryDto<>(content, nextCursor, rides.hasNext());
+    }
+
+    private static String encodeCursor(LocalDateTime createdTime, Long id) {
+        String position = createdTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static RideHistoryCursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new RideHistoryCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid ride history cursor: " + cursor);
+        }
+    }
+
+    private record RideHistoryCursor(LocalDateTime createdTime, Long id) {
+    }
+
     private void sendOtpEmailToRider(String riderEmail, String otp) {
         String subject = "Your Ride OTP";
         String body = "Dear Rider,\n\nYour OTP for the confirmed ride is: " + otp +
@@ -2,6 +2,7 @@ package com.project.uber.Uber.services.implementations;
 
 import com.project.uber.Uber.dto.DriverDto;
 import com.project.uber.Uber.dto.RideDto;
+import com.project.uber.Uber.dto.RideHistoryDto;
 import com.project.uber.Uber.dto.RideRequestDto;
 import com.project.uber.Uber.dto.RiderDto;
 import com.project.uber.Uber.entities.*;
@@ -11,15 +12,16 @@ import com.project.uber.Uber.exceptions.ResourceNotFoundException;
 import com.project.uber.Uber.exceptions.RuntimeConflictException;
 import com.project.uber.Uber.repositories.RideRequestRepository;
 import com.project.uber.Uber.repositories.RiderRepository;
+import com.project.uber.Uber.security.IdentityContext;
 import com.project.uber.Uber.services.*;
+import com.project.uber.Uber.strategies.DeferredDriverMatchingStrategy;
+import com.project.uber.Uber.strategies.DriverMatchingStrategy;
 import com.project.uber.Uber.strategies.mangers.DriverMatchingStrategyManager;
 import com.project.uber.Uber.strategies.mangers.RideFareCalculationStrategyManager;
+import com.project.uber.Uber.utils.DtoMapper;
 import org.apache.log4j.Logger;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.authentication.AuthenticationServiceException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,7 +32,6 @@ public class RiderServiceImpl implements RiderService {
 
     private final Logger log = Logger.getLogger(RiderServiceImpl.class);
 
-    private final ModelMapper modelMapper;
     private final RideRequestRepository rideRequestRepository;
     private final DriverMatchingStrategyManager driverMatchingStrategyManager;
     private final RideFareCalculationStrategyManager rideFareCalculationStrategyManager;
@@ -38,10 +39,12 @@ public class RiderServiceImpl implements RiderService {
     private final RideService rideService;
     private final DriverService driverService;
     private final RatingManagementService ratingManagementService;
-    private final NotificationService notificationService;
+    private final RideOfferService rideOfferService;
+    private final SurgePricingService surgePricingService;
+    private final FareQuoteService fareQuoteService;
+    private final IdentityContext identityContext;
 
-    public RiderServiceImpl(ModelMapper modelMapper, RideRequestRepository rideRequestRepository, RatingManagementService ratingManagementService, DriverMatchingStrategyManager driverMatchingStrategyManager, NotificationService notificationService, RiderRepository riderRepository, RideService rideService, DriverService driverService, RideFareCalculationStrategyManager rideFareCalculationStrategyManager) {
-        this.modelMapper = modelMapper;
+    public RiderServiceImpl(RideRequestRepository rideRequestRepository, RatingManagementService ratingManagementService, DriverMatchingStrategyManager driverMatchingStrategyManager, RideOfferService rideOfferService, RiderRepository riderRepository, RideService rideService, DriverService driverService, RideFareCalculationStrategyManager rideFareCalculationStrategyManager, SurgePricingService surgePricingService, FareQuoteService fareQuoteService, IdentityContext identityContext) {
         this.rideRequestRepository = rideRequestRepository;
         this.driverMatchingStrategyManager = driverMatchingStrategyManager;
         this.riderRepository = riderRepository;
@@ -49,7 +52,10 @@ public class RiderServiceImpl implements RiderService {
         this.driverService = driverService;
         this.rideFareCalculationStrategyManager = rideFareCalculationStrategyManager;
         this.ratingManagementService = ratingManagementService;
-        this.notificationService = notificationService;
+        this.rideOfferService = rideOfferService;
+        this.surgePricingService = surgePricingService;
+        this.fareQuoteService = fareQuoteService;
+        this.identityContext = identityContext;
     }
 
     @Override
@@ -57,26 +63,29 @@ public class RiderServiceImpl implements RiderService {
     public RideRequestDto requestRide(RideRequestDto rideRequestDto) {
 
         Rider rider = getCurrentRider();
-        RideRequest rideRequest = modelMapper.map(rideRequestDto,RideRequest.class);
+        RideRequest rideRequest = DtoMapper.toRideRequest(rideRequestDto);
         rideRequest.setStatus(RideRequestStatus.PENDING);
 
-        Double fare = rideFareCalculationStrategyManager
-                .rideFareCalculation()
-                .calculateFare(rideRequest);
+        surgePricingService.recordRideRequest(rideRequest.getPickUpLocation());
+        Double fare = rideRequestDto.getQuoteToken() != null
+                ? fareQuoteService.redeemFareQuote(rideRequestDto.getQuoteToken(), rideRequest, identityContext.getUserId())
+                : rideFareCalculationStrategyManager
+                        .rideFareCalculation(rideRequest.getPickUpLocation())
+                        .calculateFare(rideRequest);
         rideRequest.setFare(fare);
 
         rideRequest.setRider(rider);
         RideRequest savedRideRequest = rideRequestRepository.save(rideRequest);
 
-        List<Driver> matchingDrivers = driverMatchingStrategyManager
-                .driverMatchingStrategy(rider.getRating())
-                .findMatchingDrivers(rideRequest);
-        String[] emails = matchingDrivers.stream()
-                .map(driver -> driver.getUser().getEmail())
-                .toArray(String[]::new);
-        notificationService.sendEmail(emails, "New Ride Request", "A new ride request is available. Please check your app.");
+        DriverMatchingStrategy driverMatchingStrategy = driverMatchingStrategyManager.driverMatchingStrategy(rider.getRating());
+        if (driverMatchingStrategy instanceof DeferredDriverMatchingStrategy deferredDriverMatchingStrategy) {
+            deferredDriverMatchingStrategy.matchAndDispatchAfterCommit(savedRideRequest);
+        } else {
+            List<Driver> matchingDrivers = driverMatchingStrategy.findMatchingDrivers(rideRequest);
+            rideOfferService.startDispatch(savedRideRequest.getId(), matchingDrivers);
+        }
 
-        return modelMapper.map(savedRideRequest,RideRequestDto.class);
+        return DtoMapper.toRideRequestDto(savedRideRequest);
 
     }
 
@@ -90,13 +99,13 @@ public class RiderServiceImpl implements RiderService {
         driverService.updateDriverAvailability(ride.getDriver(), true);
         Ride savedRide = rideService.updateRideStatus(ride, RideStatus.CANCELLED);
 
-        return modelMapper.map(savedRide,RideDto.class);
+        return DtoMapper.toRideDto(savedRide);
     }
 
     @Override
     public RiderDto getRiderProfile() {
         Rider rider = getCurrentRider();
-        return modelMapper.map(rider,RiderDto.class);
+        return DtoMapper.toRiderDto(rider);
     }
 
     @Override
@@ -104,7 +113,12 @@ public class RiderServiceImpl implements RiderService {
         Rider rider = getCurrentRider();
         return rideService
                 .getAllRidesOfRider(rider,pageRequest)
-                .map(ride -> modelMapper.map(ride,RideDto.class));
+                .map(ride -> DtoMapper.toRideDto(ride));
+    }
+
+    @Override
+    public RideHistoryDto<RideDto> getMyRideHistory(String cursor, Integer size) {
+        return rideService.getRideHistoryOfRider(identityContext.getRiderId(), cursor, size);
     }
 
     @Override
@@ -133,14 +147,7 @@ public class RiderServiceImpl implements RiderService {
     @Override
     public Rider getCurrentRider() {
 
-        User user = (User) SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getPrincipal();
-
-        return riderRepository
-                .findByUser(user)
-                .orElseThrow(()-> new AuthenticationServiceException("No Rider was found with ID: "+1l));
+        return riderRepository.getReferenceById(identityContext.getRiderId());
     }
 
     @Override
@@ -150,13 +157,6 @@ public class RiderServiceImpl implements RiderService {
                 .orElseThrow(()-> new ResourceNotFoundException("No Rider was found with ID: "+id));
     }
 
-    @Override
-    public Rider updateRating(Rider rider, Double rating) {
-        rider.setRating(rating);
-        Rider savedRider = riderRepository.save(rider);
-        return savedRider;
-    }
-
     public static void validateRide(Ride ride, Rider rider, RideStatus expectedStatus) {
         if (ride == null) {
             throw new ResourceNotFoundException("Ride cannot be null.");
@@ -169,7 +169,7 @@ public class RiderServiceImpl implements RiderService {
                     String.format("Invalid ride status! Expected: %s, Found: %s", expectedStatus, ride.getStatus())
             );
         }
-        if (ride.getRider() == null || !ride.getRider().equals(rider)) {
+        if (ride.getRider() == null || !ride.getRider().getId().equals(rider.getId())) {
             throw new RuntimeConflictException("The provided rider does not own this ride.");
         }
     }
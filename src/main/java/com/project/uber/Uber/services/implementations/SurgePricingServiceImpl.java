@@ -0,0 +1,151 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.services.DriverLocationIndexService;
+import com.project.uber.Uber.services.SurgePricingService;
+import com.project.uber.Uber.utils.GeometryUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+public class SurgePricingServiceImpl implements SurgePricingService {
+
+    private final DriverLocationIndexService driverLocationIndexService;
+    private final MeterRegistry meterRegistry;
+    private final double zoneSizeInDegrees;
+    private final long bucketInMillis;
+    private final int bucketCount;
+    private final int supplySamples;
+    private final double demandSupplyThreshold;
+    private final double sensitivity;
+    private final double maxMultiplier;
+
+    private final Map<Long, DemandWindow> demandByZone = new ConcurrentHashMap<>();
+
+    // only touched by the recompute job
+    private final Queue<Map<Long, Integer>> supplySnapshots = new ArrayDeque<>();
+    private final Map<Long, Integer> supplyTotals = new HashMap<>();
+
+    // replaced wholesale on every recompute, so fare lookups never see a half-built table
+    private volatile Map<Long, Double> multiplierByZone = Map.of();
+
+    public SurgePricingServiceImpl(DriverLocationIndexService driverLocationIndexService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${surge.zoneSizeInDegrees}") double zoneSizeInDegrees,
+                                   @Value("${surge.windowInSeconds}") int windowInSeconds,
+                                   @Value("${surge.bucketInSeconds}") int bucketInSeconds,
+                                   @Value("${surge.recomputeIntervalInMillis}") long recomputeIntervalInMillis,
+                                   @Value("${surge.demandSupplyThreshold}") double demandSupplyThreshold,
+                                   @Value("${surge.sensitivity}") double sensitivity,
+                                   @Value("${surge.maxMultiplier}") double maxMultiplier) {
+        this.driverLocationIndexService = driverLocationIndexService;
+        this.meterRegistry = meterRegistry;
+        this.zoneSizeInDegrees = zoneSizeInDegrees;
+        this.bucketInMillis = bucketInSeconds * 1000L;
+        this.bucketCount = Math.max(windowInSeconds / bucketInSeconds, 1);
+        this.supplySamples = (int) Math.max(windowInSeconds * 1000L / recomputeIntervalInMillis, 1);
+        this.demandSupplyThreshold = demandSupplyThreshold;
+        this.sensitivity = sensitivity;
+        this.maxMultiplier = maxMultiplier;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("surge.zones.active", this, service -> service.multiplierByZone.size()).register(meterRegistry);
+    }
+
+    @Override
+    public void recordRideRequest(Point pickUpLocation) {
+        long zone = GeometryUtil.cellKey(pickUpLocation.getX(), pickUpLocation.getY(), zoneSizeInDegrees);
+        demandByZone
+                .computeIfAbsent(zone, key -> new DemandWindow(bucketCount))
+                .increment(System.currentTimeMillis() / bucketInMillis);
+    }
+
+    @Override
+    public double getSurgeMultiplier(Point pickUpLocation) {
+        long zone = GeometryUtil.cellKey(pickUpLocation.getX(), pickUpLocation.getY(), zoneSizeInDegrees);
+        return multiplierByZone.getOrDefault(zone, 1.0);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${surge.recomputeIntervalInMillis}")
+    public void recomputeMultipliers() {
+        // supply: rolling sum of per-zone available-driver snapshots taken from the in-memory index
+        Map<Long, Integer> snapshot = driverLocationIndexService.countDriversByZone(zoneSizeInDegrees);
+        snapshot.forEach((zone, count) -> supplyTotals.merge(zone, count, Integer::sum));
+        supplySnapshots.add(snapshot);
+        if (supplySnapshots.size() > supplySamples) {
+            supplySnapshots.poll().forEach((zone, count) ->
+                    supplyTotals.computeIfPresent(zone, (key, total) -> total - count == 0 ? null : total - count));
+        }
+
+        long currentBucket = System.currentTimeMillis() / bucketInMillis;
+        Map<Long, Double> multipliers = new HashMap<>();
+        demandByZone.forEach((zone, window) -> {
+            long demand = window.sum(currentBucket);
+            if (demand == 0) {
+                demandByZone.remove(zone, window);
+                return;
+            }
+            double averageSupply = supplyTotals.getOrDefault(zone, 0) / (double) supplySnapshots.size();
+            double ratio = demand / Math.max(averageSupply, 1.0);
+            double multiplier = Math.min(1.0 + sensitivity * (ratio - demandSupplyThreshold), maxMultiplier);
+            // rounded to 0.1 steps so fares do not jitter between recomputes
+            multiplier = Math.round(multiplier * 10) / 10.0;
+            if (multiplier > 1.0) multipliers.put(zone, multiplier);
+        });
+        multiplierByZone = multipliers;
+    }
+
+    // ride requests per time bucket over the sliding window; a bucket is reset lazily when its slot is reused.
+    // Each slot packs the bucket id and its count into one long, so the reset and the increment are a single CAS.
+    private static final class DemandWindow {
+        private static final int COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slots;
+
+        private DemandWindow(int bucketCount) {
+            this.slots = new AtomicLongArray(bucketCount);
+        }
+
+        private void increment(long bucket) {
+            int slot = (int) (bucket % slots.length());
+            while (true) {
+                long packed = slots.get(slot);
+                long slotBucket = packed >>> COUNT_BITS;
+                // the slot has already moved on to a newer bucket
+                if (slotBucket > bucket) return;
+                long next;
+                if (slotBucket == bucket) {
+                    if ((packed & COUNT_MASK) == COUNT_MASK) return;
+                    next = packed + 1;
+                } else {
+                    next = bucket << COUNT_BITS | 1;
+                }
+                if (slots.compareAndSet(slot, packed, next)) return;
+            }
+        }
+
+        private long sum(long currentBucket) {
+            long sum = 0;
+            for (int slot = 0; slot < slots.length(); slot++) {
+                long packed = slots.get(slot);
+                if (currentBucket - (packed >>> COUNT_BITS) < slots.length()) sum += packed & COUNT_MASK;
+            }
+            return sum;
+        }
+    }
+}
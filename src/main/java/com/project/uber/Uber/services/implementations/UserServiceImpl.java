@@ -1,20 +1,50 @@
 package com.project.uber.Uber.services.implementations;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.entities.enums.Roles;
 import com.project.uber.Uber.repositories.UserRepository;
 import com.project.uber.Uber.services.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final Cache<Long, User> users;
+    private final Cache<Long, Instant> rolesChangedAt;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${user.cache.maximumSize}") long maximumSize,
+                           @Value("${user.cache.ttlInSeconds}") long ttlInSeconds,
+                           @Value("${jwt.accessTokenValidityInSeconds}") long accessTokenValidityInSeconds) {
         this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlInSeconds))
+                .recordStats()
+                .build();
+        // only tokens issued before the change can carry stale roles, so entries can expire with them
+        this.rolesChangedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(accessTokenValidityInSeconds))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user");
     }
 
     @Override
@@ -24,10 +54,43 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // called by the authentication provider after a successful login whose hash used an older BCrypt strength
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository
+                .findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        User savedUser = userRepository.save(user);
+        users.invalidate(savedUser.getId());
+        return savedUser;
+    }
+
     @Override
     public User getUserFromId(Long userId) {
-        return userRepository
-                .findById(userId)
-                .orElseThrow(()-> new AuthenticationCredentialsNotFoundException("User not found!"));
+        return users.get(userId, id -> userRepository
+                .findById(id)
+                .orElseThrow(()-> new AuthenticationCredentialsNotFoundException("User not found!")));
+    }
+
+    // builds the principal from a verified access token; the entity is only loaded for tokens that predate a role change
+    @Override
+    public User getUserFromClaims(Claims claims) {
+        Long userId = Long.valueOf(claims.getSubject());
+        List<?> roleNames = claims.get("roles", List.class);
+        Instant changedAt = rolesChangedAt.getIfPresent(userId);
+        if (roleNames == null || (changedAt != null && claims.getIssuedAt().toInstant().isBefore(changedAt))) {
+            return getUserFromId(userId);
+        }
+
+        Set<Roles> roles = EnumSet.noneOf(Roles.class);
+        for (Object roleName : roleNames) roles.add(Roles.valueOf(roleName.toString()));
+        return new User(userId, null, claims.get("email", String.class), null, roles);
+    }
+
+    @Override
+    public void onRolesChanged(Long userId) {
+        rolesChangedAt.put(userId, Instant.now());
+        users.invalidate(userId);
     }
 }
@@ -7,65 +7,86 @@ import com.project.uber.Uber.entities.WalletTransaction;
 import com.project.uber.Uber.entities.enums.TransactionMethod;
 import com.project.uber.Uber.entities.enums.TransactionType;
 import com.project.uber.Uber.exceptions.ResourceNotFoundException;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
 import com.project.uber.Uber.repositories.WalletRepository;
 import com.project.uber.Uber.services.WalletService;
 import com.project.uber.Uber.services.WalletTransactionService;
+import com.project.uber.Uber.utils.MoneyUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class WalletServiceImpl implements WalletService {
 
+    private static final long INITIAL_BALANCE_IN_MINOR_UNITS = 1000_00L;
+
+    // single-statement read-modify-write: the row lock is held only for the UPDATE itself, so concurrent
+    // payments to one wallet queue on that lock instead of losing updates
+    static final String CREDIT_SQL =
+            "UPDATE wallet SET balance_in_minor_units = balance_in_minor_units + ? " +
+            "WHERE user_id = ? RETURNING id, balance_in_minor_units";
+    static final String DEBIT_SQL =
+            "UPDATE wallet SET balance_in_minor_units = balance_in_minor_units - ? " +
+            "WHERE user_id = ? AND balance_in_minor_units >= ? RETURNING id, balance_in_minor_units";
+
     private final WalletRepository walletRepository;
     private final WalletTransactionService walletTransactionService;
+    private final JdbcTemplate jdbcTemplate;
 
-    public WalletServiceImpl(WalletRepository walletRepository, WalletTransactionService walletTransactionService) {
+    public WalletServiceImpl(WalletRepository walletRepository,
+                             WalletTransactionService walletTransactionService,
+                             JdbcTemplate jdbcTemplate) {
         this.walletRepository = walletRepository;
         this.walletTransactionService = walletTransactionService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     @Transactional
-    public Wallet addMoneyToWallet(User user, Double amount, String transactionId, Ride ride, TransactionMethod transactionMethod) {
-        Wallet wallet = findByUser(user);
-        Double prevAmount = wallet.getBalance();
-        Double newAmount = prevAmount + amount;
-        wallet.setBalance(newAmount);
+    public long addMoneyToWallet(User user, long amountInMinorUnits, String transactionId, Ride ride, TransactionMethod transactionMethod) {
+        List<long[]> updated = jdbcTemplate.query(CREDIT_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                amountInMinorUnits, user.getId());
+        if (updated.isEmpty()) {
+            throw new ResourceNotFoundException("No wallet was found with ID: " + user.getId());
+        }
 
-        WalletTransaction walletTransaction = new WalletTransaction
-                .WalletTransactionBuilder()
-                .transactionId(transactionId)
-                .transactionMethod(transactionMethod)
-                .transactionType(TransactionType.CREDIT)
-                .ride(ride)
-                .amount(amount)
-                .wallet(wallet)
-                .build();
-        walletTransactionService.createNewWalletTransaction(walletTransaction);
-
-        return walletRepository.save(wallet);
+        recordTransaction(updated.get(0)[0], amountInMinorUnits, TransactionType.CREDIT, transactionId, ride, transactionMethod);
+        return updated.get(0)[1];
     }
 
     @Override
     @Transactional
-    public Wallet subtractMoneyFromWallet(User user, Double amount, String transactionId, Ride ride, TransactionMethod transactionMethod) {
-        Wallet wallet = findByUser(user);
-        Double prevAmount = wallet.getBalance();
-        Double newAmount = prevAmount - amount;
-        wallet.setBalance(newAmount);
+    public long subtractMoneyFromWallet(User user, long amountInMinorUnits, String transactionId, Ride ride, TransactionMethod transactionMethod) {
+        List<long[]> updated = jdbcTemplate.query(DEBIT_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                amountInMinorUnits, user.getId(), amountInMinorUnits);
+        if (updated.isEmpty()) {
+            findByUser(user);
+            throw new RuntimeConflictException("Insufficient wallet balance for user with ID: " + user.getId());
+        }
 
+        recordTransaction(updated.get(0)[0], amountInMinorUnits, TransactionType.DEBIT, transactionId, ride, transactionMethod);
+        return updated.get(0)[1];
+    }
+
+    private void recordTransaction(Long walletId, long amountInMinorUnits, TransactionType transactionType,
+                                   String transactionId, Ride ride, TransactionMethod transactionMethod) {
+        // a zero amount leaves the balance unchanged, so there is nothing to post
+        if (amountInMinorUnits == 0) return;
         WalletTransaction walletTransaction = new WalletTransaction
                 .WalletTransactionBuilder()
                 .transactionId(transactionId)
                 .transactionMethod(transactionMethod)
-                .transactionType(TransactionType.DEBIT)
+                .transactionType(transactionType)
                 .ride(ride)
-                .amount(amount)
-                .wallet(wallet)
+                .amount(MoneyUtil.fromMinorUnits(amountInMinorUnits))
+                .wallet(walletRepository.getReferenceById(walletId))
                 .build();
-
-        wallet.getTransactions().add(walletTransaction);
-        return walletRepository.save(wallet);
+        walletTransactionService.appendWalletTransaction(walletTransaction);
     }
 
     @Override
@@ -86,7 +107,7 @@ public class WalletServiceImpl implements WalletService {
     public Wallet createNewWallet(User user) {
         Wallet wallet = new Wallet();
         wallet.setUser(user);
-        wallet.setBalance(1000D);
+        wallet.setBalanceInMinorUnits(INITIAL_BALANCE_IN_MINOR_UNITS);
         return walletRepository.save(wallet);
     }
 }
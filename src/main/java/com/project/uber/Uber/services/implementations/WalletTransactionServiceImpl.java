@@ -1,24 +1,77 @@
 package com.project.uber.Uber.services.implementations;
 
 import com.project.uber.Uber.entities.WalletTransaction;
-import com.project.uber.Uber.repositories.WalletTransactionRepository;
 import com.project.uber.Uber.services.WalletTransactionService;
-import org.modelmapper.ModelMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class WalletTransactionServiceImpl implements WalletTransactionService {
 
-    private final ModelMapper modelMapper;
-    private final WalletTransactionRepository walletTransactionRepository;
+    static final String INSERT_SQL =
+            "INSERT INTO wallet_transaction (wallet_id, amount, transaction_type, transaction_method, ride_id, transaction_id, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
 
-    public WalletTransactionServiceImpl(ModelMapper modelMapper, WalletTransactionRepository walletTransactionRepository) {
-        this.modelMapper = modelMapper;
-        this.walletTransactionRepository = walletTransactionRepository;
+    public WalletTransactionServiceImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
     }
 
     @Override
-    public void createNewWalletTransaction(WalletTransaction walletTransaction) {
-        walletTransactionRepository.save(walletTransaction);
+    public void appendWalletTransaction(WalletTransaction walletTransaction) {
+        Object[] row = toRow(walletTransaction);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            jdbcTemplate.update(INSERT_SQL, row);
+            return;
+        }
+        pendingPostings().rows.add(row);
+    }
+
+    // the buffer lives in a synchronization, so a REQUIRES_NEW transaction suspends it and starts its own
+    private PendingPostings pendingPostings() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingPostings pending && pending.owner == this) return pending;
+        }
+        PendingPostings pending = new PendingPostings(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private static final class PendingPostings implements TransactionSynchronization {
+        private final WalletTransactionServiceImpl owner;
+        private final List<Object[]> rows = new ArrayList<>(4);
+
+        private PendingPostings(WalletTransactionServiceImpl owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // pending entity changes (e.g. a ride the postings refer to) have to reach the database first
+            owner.entityManager.flush();
+            owner.jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    private static Object[] toRow(WalletTransaction walletTransaction) {
+        return new Object[]{
+                walletTransaction.getWallet().getId(),
+                walletTransaction.getAmount(),
+                walletTransaction.getTransactionType().name(),
+                walletTransaction.getTransactionMethod().name(),
+                walletTransaction.getRide() == null ? null : walletTransaction.getRide().getId(),
+                walletTransaction.getTransactionId(),
+                walletTransaction.getTimestamp() == null ? LocalDateTime.now() : walletTransaction.getTimestamp()
+        };
     }
 }
@@ -0,0 +1,10 @@
+package com.project.uber.Uber.strategies;
+
+import com.project.uber.Uber.entities.RideRequest;
+
+// strategies that answer from a matching window instead of on the request thread; they start the dispatch
+// themselves once the ride request has committed, so no transaction or connection is held while they wait
+public interface DeferredDriverMatchingStrategy extends DriverMatchingStrategy {
+
+    void matchAndDispatchAfterCommit(RideRequest rideRequest);
+}
@@ -5,6 +5,7 @@ import com.project.uber.Uber.entities.Payment;
 import com.project.uber.Uber.entities.enums.TransactionMethod;
 import com.project.uber.Uber.services.WalletService;
 import com.project.uber.Uber.strategies.PaymentStrategy;
+import com.project.uber.Uber.utils.MoneyUtil;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -20,7 +21,7 @@ public class CashPaymentStrategy implements PaymentStrategy {
     public void processPayment(Payment payment) {
 
         Driver driver = payment.getRide().getDriver();
-        double paymentCommission = payment.getAmount() * PLATFORM_FEE;
+        long paymentCommission = MoneyUtil.percentageOf(MoneyUtil.toMinorUnits(payment.getAmount()), PLATFORM_FEE);
 
         walletService.subtractMoneyFromWallet(driver.getUser(),
                 paymentCommission,
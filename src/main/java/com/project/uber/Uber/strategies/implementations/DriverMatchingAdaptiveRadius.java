@@ -0,0 +1,91 @@
+package com.project.uber.Uber.strategies.implementations;
+
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.entities.RideRequest;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.services.DriverLocationIndexService;
+import com.project.uber.Uber.services.DriverLocationIndexService.NearbyDriver;
+import com.project.uber.Uber.strategies.DriverMatchingStrategy;
+import com.project.uber.Uber.utils.GeometryUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class DriverMatchingAdaptiveRadius implements DriverMatchingStrategy {
+
+    private static final double LEARNING_WEIGHT = 0.2;
+    private static final double HEADROOM = 1.25;
+    private static final double EXPANSION_FACTOR = 2.0;
+
+    private final DriverRepository driverRepository;
+    private final DriverLocationIndexService driverLocationIndexService;
+    private final double initialRadiusInMeters;
+    private final double minRadiusInMeters;
+    private final double maxRadiusInMeters;
+    private final double zoneSizeInDegrees;
+    private final int candidates;
+    private final DistributionSummary searchRadius;
+    private final DistributionSummary expansions;
+
+    // per zone: moving average of the radius that was needed to reach the candidate target
+    private final Map<Long, Double> learnedRadiusByZone = new ConcurrentHashMap<>();
+
+    public DriverMatchingAdaptiveRadius(DriverRepository driverRepository,
+                                        DriverLocationIndexService driverLocationIndexService,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${matching.adaptive.initialRadiusInMeters}") double initialRadiusInMeters,
+                                        @Value("${matching.adaptive.minRadiusInMeters}") double minRadiusInMeters,
+                                        @Value("${matching.adaptive.maxRadiusInMeters}") double maxRadiusInMeters,
+                                        @Value("${matching.adaptive.zoneSizeInDegrees}") double zoneSizeInDegrees,
+                                        @Value("${matching.adaptive.candidates}") int candidates) {
+        this.driverRepository = driverRepository;
+        this.driverLocationIndexService = driverLocationIndexService;
+        this.initialRadiusInMeters = initialRadiusInMeters;
+        this.minRadiusInMeters = minRadiusInMeters;
+        this.maxRadiusInMeters = maxRadiusInMeters;
+        this.zoneSizeInDegrees = zoneSizeInDegrees;
+        this.candidates = candidates;
+        this.searchRadius = DistributionSummary.builder("matching.adaptive.radius").baseUnit("meters").register(meterRegistry);
+        this.expansions = DistributionSummary.builder("matching.adaptive.expansions").register(meterRegistry);
+    }
+
+    @Override
+    public List<Driver> findMatchingDrivers(RideRequest rideRequest) {
+        Point pickUpLocation = rideRequest.getPickUpLocation();
+        long zone = GeometryUtil.cellKey(pickUpLocation.getX(), pickUpLocation.getY(), zoneSizeInDegrees);
+
+        // the learned radius is only where the search starts; a short result keeps widening up to the maximum
+        double radius = startRadius(zone);
+        List<NearbyDriver> nearby = driverLocationIndexService.findNearestDrivers(pickUpLocation, radius, candidates);
+        int expansionCount = 0;
+        while (nearby.size() < candidates && radius < maxRadiusInMeters) {
+            radius = Math.min(radius * EXPANSION_FACTOR, maxRadiusInMeters);
+            expansionCount++;
+            nearby = driverLocationIndexService.findNearestDrivers(pickUpLocation, radius, candidates);
+        }
+
+        searchRadius.record(radius);
+        expansions.record(expansionCount);
+        learn(zone, nearby.size() == candidates ? nearby.get(nearby.size() - 1).getDistanceInMeters() : radius);
+
+        return driverRepository.findAllByIdInOrder(nearby.stream().map(NearbyDriver::getDriverId).toList());
+    }
+
+    private double startRadius(long zone) {
+        Double learned = learnedRadiusByZone.get(zone);
+        if (learned == null) return initialRadiusInMeters;
+        return Math.min(Math.max(learned * HEADROOM, minRadiusInMeters), maxRadiusInMeters);
+    }
+
+    private void learn(long zone, double neededRadius) {
+        learnedRadiusByZone.merge(zone, neededRadius,
+                (previous, latest) -> previous + LEARNING_WEIGHT * (latest - previous));
+    }
+}
@@ -0,0 +1,342 @@
+package com.project.uber.Uber.strategies.implementations;
+
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.entities.RideRequest;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.services.DriverLocationIndexService;
+import com.project.uber.Uber.services.DriverLocationIndexService.NearbyDriver;
+import com.project.uber.Uber.services.RideOfferService;
+import com.project.uber.Uber.strategies.DeferredDriverMatchingStrategy;
+import com.project.uber.Uber.utils.HungarianAlgorithm;
+import com.project.uber.Uber.utils.TransactionUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class DriverMatchingBatchedAssignment implements DeferredDriverMatchingStrategy {
+
+    private static final Logger log = Logger.getLogger(DriverMatchingBatchedAssignment.class);
+    private static final double UNREACHABLE_COST = 1e9;
+
+    private final DriverRepository driverRepository;
+    private final DriverLocationIndexService driverLocationIndexService;
+    private final RideOfferService rideOfferService;
+    private final boolean enabled;
+    private final long windowInMillis;
+    private final int candidatesPerRequest;
+    private final double searchRadiusInMeters;
+    private final long holdInNanos;
+
+    private final Queue<PendingMatch> pendingMatches = new ConcurrentLinkedQueue<>();
+    // assigned drivers sit out later windows until their offer resolves; the deadline only guards against a lost callback
+    private final Map<Long, Hold> heldDrivers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService windowScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "batched-driver-matching");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer solveTimer;
+    private final Timer waitTimer;
+    private final DistributionSummary windowRequests;
+    private final DistributionSummary optimalPickupDistance;
+    private final DistributionSummary greedyPickupDistance;
+
+    public DriverMatchingBatchedAssignment(DriverRepository driverRepository,
+                                           DriverLocationIndexService driverLocationIndexService,
+                                           RideOfferService rideOfferService,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${matching.mode}") String matchingMode,
+                                           @Value("${matching.batch.windowInMillis}") long windowInMillis,
+                                           @Value("${matching.batch.candidatesPerRequest}") int candidatesPerRequest,
+                                           @Value("${matching.batch.searchRadiusInMeters}") double searchRadiusInMeters,
+                                           @Value("${dispatch.offer.timeoutInMillis}") long offerTimeoutInMillis) {
+        this.driverRepository = driverRepository;
+        this.driverLocationIndexService = driverLocationIndexService;
+        this.rideOfferService = rideOfferService;
+        this.enabled = matchingMode.equals("batched");
+        this.windowInMillis = windowInMillis;
+        this.candidatesPerRequest = candidatesPerRequest;
+        this.searchRadiusInMeters = searchRadiusInMeters;
+        this.holdInNanos = TimeUnit.MILLISECONDS.toNanos(windowInMillis * 3 + offerTimeoutInMillis * 2);
+
+        this.solveTimer = Timer.builder("matching.batch.window.solve").register(meterRegistry);
+        this.waitTimer = Timer.builder("matching.batch.request.wait").register(meterRegistry);
+        this.windowRequests = DistributionSummary.builder("matching.batch.window.requests").register(meterRegistry);
+        this.optimalPickupDistance = DistributionSummary.builder("matching.batch.pickup.distance")
+                .tag("assignment", "optimal").baseUnit("meters").register(meterRegistry);
+        this.greedyPickupDistance = DistributionSummary.builder("matching.batch.pickup.distance")
+                .tag("assignment", "greedy").baseUnit("meters").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startWindows() {
+        if (!enabled) return;
+        windowScheduler.scheduleWithFixedDelay(this::solveWindow, windowInMillis, windowInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopWindows() {
+        windowScheduler.shutdownNow();
+        dispatchExecutor.shutdown();
+    }
+
+    @Override
+    public void matchAndDispatchAfterCommit(RideRequest rideRequest) {
+        Long rideRequestId = rideRequest.getId();
+        Point pickUpLocation = rideRequest.getPickUpLocation();
+        TransactionUtil.afterCommit(() -> {
+            PendingMatch pendingMatch = new PendingMatch(rideRequestId, pickUpLocation);
+            pendingMatches.add(pendingMatch);
+            pendingMatch.result
+                    .orTimeout(windowInMillis * 3, TimeUnit.MILLISECONDS)
+                    .handleAsync((driverIds, failure) -> {
+                        if (failure != null) {
+                            pendingMatches.remove(pendingMatch);
+                            log.error("Batched matching unavailable for ride request " + rideRequestId
+                                    + ", falling back to nearest drivers: " + failure.getLocalizedMessage());
+                            driverIds = availableCandidates(pickUpLocation).stream().map(NearbyDriver::getDriverId).toList();
+                        }
+                        waitTimer.record(System.nanoTime() - pendingMatch.enqueuedAt, TimeUnit.NANOSECONDS);
+                        try {
+                            rideOfferService.startDispatch(rideRequestId, driverRepository.findAllByIdInOrder(driverIds),
+                                    driverId -> release(driverId, rideRequestId));
+                        } catch (RuntimeException e) {
+                            // the assigned driver was never offered the ride, so it must not stay held
+                            if (!driverIds.isEmpty()) release(driverIds.get(0), rideRequestId);
+                            throw e;
+                        }
+                        return null;
+                    }, dispatchExecutor)
+                    .exceptionally(failure -> {
+                        log.error("Dispatch of ride request " + rideRequestId + " failed: " + failure.getLocalizedMessage());
+                        return null;
+                    });
+        });
+    }
+
+    private void release(Long driverId, Long rideRequestId) {
+        heldDrivers.computeIfPresent(driverId, (id, hold) -> hold.rideRequestId.equals(rideRequestId) ? null : hold);
+    }
+
+    // callers that cannot wait for a window get the nearest drivers that are not held by an earlier assignment
+    @Override
+    public List<Driver> findMatchingDrivers(RideRequest rideRequest) {
+        List<Long> driverIds = availableCandidates(rideRequest.getPickUpLocation())
+                .stream()
+                .map(NearbyDriver::getDriverId)
+                .toList();
+        return driverRepository.findAllByIdInOrder(driverIds);
+    }
+
+    private List<NearbyDriver> availableCandidates(Point pickUpLocation) {
+        List<NearbyDriver> nearby = driverLocationIndexService
+                .findNearestDrivers(pickUpLocation, searchRadiusInMeters, candidatesPerRequest * 2);
+        List<NearbyDriver> available = withoutHeldDrivers(nearby);
+        if (available.size() < candidatesPerRequest && nearby.size() == candidatesPerRequest * 2) {
+            // held drivers crowd this area, so look past all of them
+            available = withoutHeldDrivers(driverLocationIndexService
+                    .findNearestDrivers(pickUpLocation, searchRadiusInMeters, candidatesPerRequest + heldDrivers.size()));
+        }
+        return available.size() > candidatesPerRequest ? available.subList(0, candidatesPerRequest) : available;
+    }
+
+    private List<NearbyDriver> withoutHeldDrivers(List<NearbyDriver> nearby) {
+        List<NearbyDriver> available = new ArrayList<>(nearby.size());
+        for (NearbyDriver nearbyDriver : nearby) {
+            if (!heldDrivers.containsKey(nearbyDriver.getDriverId())) available.add(nearbyDriver);
+        }
+        return available;
+    }
+
+    private void solveWindow() {
+        List<PendingMatch> batch = new ArrayList<>();
+        PendingMatch next;
+        while ((next = pendingMatches.poll()) != null) batch.add(next);
+        if (batch.isEmpty()) return;
+
+        try {
+            long start = System.nanoTime();
+            heldDrivers.values().removeIf(hold -> hold.deadline - start < 0);
+
+            List<List<NearbyDriver>> candidates = new ArrayList<>(batch.size());
+            for (PendingMatch pendingMatch : batch) {
+                candidates.add(availableCandidates(pendingMatch.pickUpLocation));
+            }
+
+            Long[] assignedDriverIds = new Long[batch.size()];
+            double[] pickupDistances = new double[batch.size()];
+            // requests that share no candidate driver are independent, so each component is solved on its own small matrix
+            for (List<Integer> component : connectedComponents(candidates)) {
+                solveComponent(component, candidates, assignedDriverIds, pickupDistances);
+            }
+            long solveNanos = System.nanoTime() - start;
+
+            Set<Long> assignedInWindow = new HashSet<>();
+            long holdDeadline = System.nanoTime() + holdInNanos;
+            for (int i = 0; i < batch.size(); i++) {
+                if (assignedDriverIds[i] == null) continue;
+                assignedInWindow.add(assignedDriverIds[i]);
+                heldDrivers.put(assignedDriverIds[i], new Hold(batch.get(i).rideRequestId, holdDeadline));
+            }
+
+            int assigned = 0;
+            double optimalDistance = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Long driverId = assignedDriverIds[i];
+                if (driverId != null) {
+                    assigned++;
+                    optimalDistance += pickupDistances[i];
+                }
+                batch.get(i).result.complete(rankedDriverIds(driverId, candidates.get(i), assignedInWindow));
+            }
+
+            GreedyResult greedy = greedyBaseline(candidates);
+            solveTimer.record(solveNanos, TimeUnit.NANOSECONDS);
+            windowRequests.record(batch.size());
+            optimalPickupDistance.record(optimalDistance);
+            greedyPickupDistance.record(greedy.distance);
+
+            log.info(String.format("Batched matching window: %d requests (%.1f req/s), %d assigned (greedy %d), " +
+                            "pickup distance %.0f m (greedy %.0f m), solved in %.2f ms",
+                    batch.size(), batch.size() * 1000.0 / windowInMillis, assigned, greedy.assigned,
+                    optimalDistance, greedy.distance, solveNanos / 1_000_000.0));
+        } catch (Exception e) {
+            log.error("Batched matching window failed: " + e.getLocalizedMessage());
+            batch.forEach(pendingMatch -> pendingMatch.result.completeExceptionally(e));
+        }
+    }
+
+    // the assigned driver goes first, then the request's other candidates that no other request in the window was given
+    private static List<Long> rankedDriverIds(Long assignedDriverId, List<NearbyDriver> candidates, Set<Long> assignedInWindow) {
+        List<Long> ranked = new ArrayList<>(candidates.size());
+        if (assignedDriverId != null) ranked.add(assignedDriverId);
+        for (NearbyDriver nearbyDriver : candidates) {
+            if (!assignedInWindow.contains(nearbyDriver.getDriverId())) ranked.add(nearbyDriver.getDriverId());
+        }
+        return ranked;
+    }
+
+    private void solveComponent(List<Integer> requests, List<List<NearbyDriver>> candidates,
+                                Long[] assignedDriverIds, double[] pickupDistances) {
+        Map<Long, Integer> columnOfDriver = new LinkedHashMap<>();
+        for (int request : requests) {
+            for (NearbyDriver nearbyDriver : candidates.get(request)) {
+                columnOfDriver.putIfAbsent(nearbyDriver.getDriverId(), columnOfDriver.size());
+            }
+        }
+        if (columnOfDriver.isEmpty()) return;
+
+        Long[] driverOfColumn = columnOfDriver.keySet().toArray(new Long[0]);
+        double[][] cost = new double[requests.size()][driverOfColumn.length];
+        for (int row = 0; row < requests.size(); row++) {
+            Arrays.fill(cost[row], UNREACHABLE_COST);
+            for (NearbyDriver nearbyDriver : candidates.get(requests.get(row))) {
+                cost[row][columnOfDriver.get(nearbyDriver.getDriverId())] = nearbyDriver.getDistanceInMeters();
+            }
+        }
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+        for (int row = 0; row < requests.size(); row++) {
+            int column = assignment[row];
+            if (column >= 0 && cost[row][column] < UNREACHABLE_COST) {
+                assignedDriverIds[requests.get(row)] = driverOfColumn[column];
+                pickupDistances[requests.get(row)] = cost[row][column];
+            }
+        }
+    }
+
+    private List<List<Integer>> connectedComponents(List<List<NearbyDriver>> candidates) {
+        int[] parent = new int[candidates.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+
+        Map<Long, Integer> firstRequestOfDriver = new HashMap<>();
+        for (int request = 0; request < candidates.size(); request++) {
+            for (NearbyDriver nearbyDriver : candidates.get(request)) {
+                Integer other = firstRequestOfDriver.putIfAbsent(nearbyDriver.getDriverId(), request);
+                if (other != null) parent[find(parent, request)] = find(parent, other);
+            }
+        }
+
+        Map<Integer, List<Integer>> components = new LinkedHashMap<>();
+        for (int request = 0; request < candidates.size(); request++) {
+            components.computeIfAbsent(find(parent, request), root -> new ArrayList<>()).add(request);
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private GreedyResult greedyBaseline(List<List<NearbyDriver>> candidates) {
+        Set<Long> taken = new HashSet<>();
+        GreedyResult result = new GreedyResult();
+        for (List<NearbyDriver> requestCandidates : candidates) {
+            for (NearbyDriver nearbyDriver : requestCandidates) {
+                if (taken.add(nearbyDriver.getDriverId())) {
+                    result.assigned++;
+                    result.distance += nearbyDriver.getDistanceInMeters();
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class PendingMatch {
+        private final Long rideRequestId;
+        private final Point pickUpLocation;
+        private final CompletableFuture<List<Long>> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private PendingMatch(Long rideRequestId, Point pickUpLocation) {
+            this.rideRequestId = rideRequestId;
+            this.pickUpLocation = pickUpLocation;
+        }
+    }
+
+    private static final class Hold {
+        private final Long rideRequestId;
+        private final long deadline;
+
+        private Hold(Long rideRequestId, long deadline) {
+            this.rideRequestId = rideRequestId;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class GreedyResult {
+        private int assigned;
+        private double distance;
+    }
+}
@@ -3,6 +3,7 @@ package com.project.uber.Uber.strategies.implementations;
 import com.project.uber.Uber.entities.Driver;
 import com.project.uber.Uber.entities.RideRequest;
 import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.services.DriverLocationIndexService;
 import com.project.uber.Uber.strategies.DriverMatchingStrategy;
 import org.springframework.stereotype.Service;
 
@@ -11,14 +12,21 @@ import java.util.List;
 @Service
 public class DriverMatchingNearestDrivers implements DriverMatchingStrategy {
 
+    private static final double SEARCH_RADIUS_IN_METERS = 10000;
+    private static final int MAX_MATCHED_DRIVERS = 10;
+
     private final DriverRepository driverRepository;
+    private final DriverLocationIndexService driverLocationIndexService;
 
-    public DriverMatchingNearestDrivers(DriverRepository driverRepository) {
+    public DriverMatchingNearestDrivers(DriverRepository driverRepository, DriverLocationIndexService driverLocationIndexService) {
         this.driverRepository = driverRepository;
+        this.driverLocationIndexService = driverLocationIndexService;
     }
 
     @Override
     public List<Driver> findMatchingDrivers(RideRequest rideRequest) {
-        return driverRepository.findTenNearestDrivers(rideRequest.getPickUpLocation());
+        List<Long> driverIds = driverLocationIndexService
+                .findNearestDriverIds(rideRequest.getPickUpLocation(), SEARCH_RADIUS_IN_METERS, MAX_MATCHED_DRIVERS);
+        return driverRepository.findAllByIdInOrder(driverIds);
     }
 }
@@ -3,6 +3,7 @@ package com.project.uber.Uber.strategies.implementations;
 
 import com.project.uber.Uber.entities.RideRequest;
 import com.project.uber.Uber.services.DistanceCalculationService;
+import com.project.uber.Uber.services.FareMatrixService;
 import com.project.uber.Uber.strategies.RideFareCalculation;
 import org.springframework.stereotype.Service;
 
@@ -10,14 +11,19 @@ import org.springframework.stereotype.Service;
 public class RideFareDefaultCalculation implements RideFareCalculation {
 
     private final DistanceCalculationService distanceCalculationService;
+    private final FareMatrixService fareMatrixService;
 
-    public RideFareDefaultCalculation(DistanceCalculationService distanceCalculationService) {
+    public RideFareDefaultCalculation(DistanceCalculationService distanceCalculationService, FareMatrixService fareMatrixService) {
         this.distanceCalculationService = distanceCalculationService;
+        this.fareMatrixService = fareMatrixService;
     }
 
     @Override
     public double calculateFare(RideRequest rideRequest) {
-        Double distance = distanceCalculationService.calculateDistance(rideRequest.getPickUpLocation(),rideRequest.getDropOffLocation());
+        Double distance = fareMatrixService.findDistance(rideRequest.getPickUpLocation(),rideRequest.getDropOffLocation());
+        if (distance == null) {
+            distance = distanceCalculationService.calculateDistance(rideRequest.getPickUpLocation(),rideRequest.getDropOffLocation());
+        }
         return distance * RIDE_FARE_MULTIPLIER;
     }
 }
@@ -2,6 +2,7 @@ package com.project.uber.Uber.strategies.implementations;
 
 import com.project.uber.Uber.entities.RideRequest;
 import com.project.uber.Uber.services.DistanceCalculationService;
+import com.project.uber.Uber.services.SurgePricingService;
 import com.project.uber.Uber.strategies.RideFareCalculation;
 import org.springframework.stereotype.Service;
 
@@ -9,18 +10,19 @@ import org.springframework.stereotype.Service;
 public class RideFareSurgePricing implements RideFareCalculation {
 
     private final DistanceCalculationService distanceCalculationService;
+    private final SurgePricingService surgePricingService;
 
-    public RideFareSurgePricing(DistanceCalculationService distanceCalculationService) {
+    public RideFareSurgePricing(DistanceCalculationService distanceCalculationService, SurgePricingService surgePricingService) {
         this.distanceCalculationService = distanceCalculationService;
+        this.surgePricingService = surgePricingService;
     }
 
-    private static final double SURGE_FACTOR = 2;
-
     @Override
     public double calculateFare(RideRequest rideRequest) {
 
         Double distance = distanceCalculationService.calculateDistance(rideRequest.getPickUpLocation(),rideRequest.getDropOffLocation());
-        return distance * RIDE_FARE_MULTIPLIER * SURGE_FACTOR;
+        double surgeFactor = surgePricingService.getSurgeMultiplier(rideRequest.getPickUpLocation());
+        return distance * RIDE_FARE_MULTIPLIER * surgeFactor;
 
     }
 }
@@ -6,6 +6,7 @@ import com.project.uber.Uber.entities.Rider;
 import com.project.uber.Uber.entities.enums.TransactionMethod;
 import com.project.uber.Uber.services.WalletService;
 import com.project.uber.Uber.strategies.PaymentStrategy;
+import com.project.uber.Uber.utils.MoneyUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +26,8 @@ public class WalletPaymentStrategy implements PaymentStrategy {
         Driver driver= payment.getRide().getDriver();
         Rider rider = payment.getRide().getRider();
 
-        double paymentAddedToWallet = payment.getAmount() - (payment.getAmount() * PLATFORM_FEE);
+        long fare = MoneyUtil.toMinorUnits(payment.getAmount());
+        long paymentAddedToWallet = fare - MoneyUtil.percentageOf(fare, PLATFORM_FEE);
 
         walletService.addMoneyToWallet(driver.getUser(),
                 paymentAddedToWallet,
@@ -34,7 +36,7 @@ public class WalletPaymentStrategy implements PaymentStrategy {
                 TransactionMethod.RIDE);
 
         walletService.subtractMoneyFromWallet(rider.getUser(),
-                payment.getAmount(),
+                fare,
                 null,
                 payment.getRide(),
                 TransactionMethod.RIDE);
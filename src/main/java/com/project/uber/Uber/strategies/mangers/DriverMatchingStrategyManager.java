@@ -1,8 +1,11 @@
 package com.project.uber.Uber.strategies.mangers;
 
 import com.project.uber.Uber.strategies.DriverMatchingStrategy;
+import com.project.uber.Uber.strategies.implementations.DriverMatchingAdaptiveRadius;
+import com.project.uber.Uber.strategies.implementations.DriverMatchingBatchedAssignment;
 import com.project.uber.Uber.strategies.implementations.DriverMatchingHighestRatedDriver;
 import com.project.uber.Uber.strategies.implementations.DriverMatchingNearestDrivers;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -10,15 +13,29 @@ public class DriverMatchingStrategyManager {
 
     private final DriverMatchingHighestRatedDriver driverMatchingHighestRatedDriver;
     private final DriverMatchingNearestDrivers driverMatchingNearestDrivers;
+    private final DriverMatchingBatchedAssignment driverMatchingBatchedAssignment;
+    private final DriverMatchingAdaptiveRadius driverMatchingAdaptiveRadius;
+    private final String matchingMode;
 
 
-    public DriverMatchingStrategyManager(DriverMatchingHighestRatedDriver driverMatchingHighestRatedDriver, DriverMatchingNearestDrivers driverMatchingNearestDrivers) {
+    public DriverMatchingStrategyManager(DriverMatchingHighestRatedDriver driverMatchingHighestRatedDriver, DriverMatchingNearestDrivers driverMatchingNearestDrivers, DriverMatchingBatchedAssignment driverMatchingBatchedAssignment, DriverMatchingAdaptiveRadius driverMatchingAdaptiveRadius, @Value("${matching.mode}") String matchingMode) {
         this.driverMatchingHighestRatedDriver = driverMatchingHighestRatedDriver;
         this.driverMatchingNearestDrivers = driverMatchingNearestDrivers;
+        this.driverMatchingBatchedAssignment = driverMatchingBatchedAssignment;
+        this.driverMatchingAdaptiveRadius = driverMatchingAdaptiveRadius;
+        this.matchingMode = matchingMode;
     }
 
     public DriverMatchingStrategy driverMatchingStrategy(double riderRating){
 
+        if (matchingMode.equals("batched")){
+            return driverMatchingBatchedAssignment;
+        }
+
+        if (matchingMode.equals("adaptive")){
+            return driverMatchingAdaptiveRadius;
+        }
+
         if (riderRating > 4.8){
             return driverMatchingHighestRatedDriver;
         }
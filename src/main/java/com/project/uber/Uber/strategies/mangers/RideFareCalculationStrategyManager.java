@@ -1,30 +1,28 @@
 package com.project.uber.Uber.strategies.mangers;
 
+import com.project.uber.Uber.services.SurgePricingService;
 import com.project.uber.Uber.strategies.RideFareCalculation;
 import com.project.uber.Uber.strategies.implementations.RideFareDefaultCalculation;
 import com.project.uber.Uber.strategies.implementations.RideFareSurgePricing;
+import org.locationtech.jts.geom.Point;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalTime;
-
 @Component
 public class RideFareCalculationStrategyManager {
 
     private final RideFareDefaultCalculation rideFareDefaultCalculation;
     private final RideFareSurgePricing rideFareSurgePricing;
+    private final SurgePricingService surgePricingService;
 
-    public RideFareCalculationStrategyManager(RideFareDefaultCalculation rideFareDefaultCalculation, RideFareSurgePricing rideFareSurgePricing) {
+    public RideFareCalculationStrategyManager(RideFareDefaultCalculation rideFareDefaultCalculation, RideFareSurgePricing rideFareSurgePricing, SurgePricingService surgePricingService) {
         this.rideFareDefaultCalculation = rideFareDefaultCalculation;
         this.rideFareSurgePricing = rideFareSurgePricing;
+        this.surgePricingService = surgePricingService;
     }
 
-    public RideFareCalculation rideFareCalculation(){
-
-        LocalTime surgeStartTime = LocalTime.of(18,0);
-        LocalTime surgeEndTime = LocalTime.of(21,0);
-        LocalTime currentTime = LocalTime.now();
+    public RideFareCalculation rideFareCalculation(Point pickUpLocation){
 
-        boolean isSurge = currentTime.isAfter(surgeStartTime) && currentTime.isBefore(surgeEndTime);
+        boolean isSurge = surgePricingService.getSurgeMultiplier(pickUpLocation) > 1.0;
 
         if (isSurge){
             return rideFareSurgePricing;
@@ -0,0 +1,106 @@
+package com.project.uber.Uber.utils;
+
+// count-based circuit breaker: opens on a high failure or slow-call rate, probes again after a cool-down.
+// Probes that never report back within another cool-down count as failed, so the breaker cannot stay half open forever.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallDurationInNanos;
+    private final long openDurationInNanos;
+    private final int halfOpenCalls;
+
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long halfOpenedAt;
+    private int halfOpenPermitsIssued;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, double slowCallRateThreshold,
+                          long slowCallDurationInMillis, long openDurationInMillis, int halfOpenCalls) {
+        this.outcomes = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationInNanos = slowCallDurationInMillis * 1_000_000;
+        this.openDurationInNanos = openDurationInMillis * 1_000_000;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationInNanos) return false;
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitsIssued >= halfOpenCalls) {
+                if (System.nanoTime() - halfOpenedAt >= openDurationInNanos) transitionTo(State.OPEN);
+                return false;
+            }
+            halfOpenPermitsIssued++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationInNanos) {
+        record(durationInNanos >= slowCallDurationInNanos ? SLOW : SUCCESS);
+    }
+
+    public synchronized void onFailure() {
+        record(FAILURE);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(byte outcome) {
+        if (state == State.OPEN) return;
+
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            if (evicted == FAILURE) failures--;
+            else if (evicted == SLOW) slowCalls--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        if (outcome == FAILURE) failures++;
+        else if (outcome == SLOW) slowCalls++;
+
+        if (state == State.HALF_OPEN) {
+            if (recorded < halfOpenCalls) return;
+            transitionTo(thresholdExceeded() ? State.OPEN : State.CLOSED);
+        } else if (recorded >= minimumCalls && thresholdExceeded()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private boolean thresholdExceeded() {
+        return failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        halfOpenPermitsIssued = 0;
+        if (newState == State.OPEN) openedAt = System.nanoTime();
+        else if (newState == State.HALF_OPEN) halfOpenedAt = System.nanoTime();
+    }
+}
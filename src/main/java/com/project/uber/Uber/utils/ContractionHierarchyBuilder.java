@@ -0,0 +1,272 @@
+package com.project.uber.Uber.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Offline preprocessing step for the embedded router: contracts a directed road graph into a
+ * contraction hierarchy and writes it in the binary layout read by {@link ContractionHierarchyGraph}.
+ * <p>
+ * Usage: {@code ContractionHierarchyBuilder nodes.csv edges.csv output.graph} where nodes are
+ * {@code id,lon,lat} and edges are {@code from,to,distanceInMeters,durationInSeconds[,oneway]}.
+ */
+public class ContractionHierarchyBuilder {
+
+    private static final int WITNESS_SETTLED_LIMIT = 500;
+    private static final int SIMULATION_SETTLED_LIMIT = 50;
+
+    private final List<double[]> coordinates = new ArrayList<>();
+    private final List<Map<Integer, int[]>> outEdges = new ArrayList<>();
+    private final List<Map<Integer, int[]>> inEdges = new ArrayList<>();
+
+    public int addNode(double lon, double lat) {
+        coordinates.add(new double[]{lon, lat});
+        outEdges.add(new HashMap<>());
+        inEdges.add(new HashMap<>());
+        return coordinates.size() - 1;
+    }
+
+    public void addEdge(int from, int to, double distanceInMeters, double durationInSeconds) {
+        if (from == to) return;
+        putEdge(from, to, (int) Math.round(distanceInMeters * 10), (int) Math.round(durationInSeconds * 10));
+    }
+
+    public void writeTo(Path path) throws IOException {
+        int nodeCount = coordinates.size();
+        int[] rank = contract();
+
+        int[] upCount = new int[nodeCount];
+        int[] downCount = new int[nodeCount];
+        for (int from = 0; from < nodeCount; from++) {
+            for (int to : outEdges.get(from).keySet()) {
+                if (rank[from] < rank[to]) upCount[from]++;
+                else downCount[to]++;
+            }
+        }
+        int[] upFirst = prefixSums(upCount);
+        int[] downFirst = prefixSums(downCount);
+        int upEdgeCount = upFirst[nodeCount];
+        int downEdgeCount = downFirst[nodeCount];
+
+        int[] upTarget = new int[upEdgeCount], upDistance = new int[upEdgeCount], upDuration = new int[upEdgeCount];
+        int[] downSource = new int[downEdgeCount], downDistance = new int[downEdgeCount], downDuration = new int[downEdgeCount];
+        int[] upNext = Arrays.copyOf(upFirst, nodeCount);
+        int[] downNext = Arrays.copyOf(downFirst, nodeCount);
+        for (int from = 0; from < nodeCount; from++) {
+            for (Map.Entry<Integer, int[]> edge : outEdges.get(from).entrySet()) {
+                int to = edge.getKey();
+                if (rank[from] < rank[to]) {
+                    int slot = upNext[from]++;
+                    upTarget[slot] = to;
+                    upDistance[slot] = edge.getValue()[0];
+                    upDuration[slot] = edge.getValue()[1];
+                } else {
+                    int slot = downNext[to]++;
+                    downSource[slot] = from;
+                    downDistance[slot] = edge.getValue()[0];
+                    downDuration[slot] = edge.getValue()[1];
+                }
+            }
+        }
+
+        int[] latitudes = new int[nodeCount];
+        int[] longitudes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            longitudes[node] = (int) Math.round(coordinates.get(node)[0] * 1e6);
+            latitudes[node] = (int) Math.round(coordinates.get(node)[1] * 1e6);
+        }
+
+        long totalInts = ContractionHierarchyGraph.HEADER_INTS + 2L * nodeCount
+                + 2L * (nodeCount + 1) + 3L * upEdgeCount + 3L * downEdgeCount;
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(totalInts * Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(ContractionHierarchyGraph.MAGIC)
+                .putInt(ContractionHierarchyGraph.VERSION)
+                .putInt(nodeCount)
+                .putInt(upEdgeCount)
+                .putInt(downEdgeCount);
+        for (int[] section : List.of(latitudes, longitudes, upFirst, upTarget, upDistance, upDuration,
+                downFirst, downSource, downDistance, downDuration)) {
+            for (int value : section) buffer.putInt(value);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    private int[] contract() {
+        int nodeCount = coordinates.size();
+        int[] rank = new int[nodeCount];
+        Arrays.fill(rank, -1);
+        int[] contractedNeighbors = new int[nodeCount];
+        int[] levels = new int[nodeCount];
+
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        for (int node = 0; node < nodeCount; node++) {
+            queue.add(new int[]{priority(node, rank, contractedNeighbors, levels), node});
+        }
+
+        int order = 0;
+        while (!queue.isEmpty()) {
+            int node = queue.poll()[1];
+            if (rank[node] >= 0) continue;
+
+            // lazy update: re-queue the node if its priority got worse since it was queued
+            int current = priority(node, rank, contractedNeighbors, levels);
+            if (!queue.isEmpty() && current > queue.peek()[0]) {
+                queue.add(new int[]{current, node});
+                continue;
+            }
+
+            for (int[] shortcut : shortcuts(node, rank, WITNESS_SETTLED_LIMIT)) {
+                putEdge(shortcut[0], shortcut[1], shortcut[2], shortcut[3]);
+            }
+            rank[node] = order++;
+            for (int neighbor : outEdges.get(node).keySet()) {
+                if (rank[neighbor] < 0) onNeighborContracted(node, neighbor, contractedNeighbors, levels);
+            }
+            for (int neighbor : inEdges.get(node).keySet()) {
+                if (rank[neighbor] < 0) onNeighborContracted(node, neighbor, contractedNeighbors, levels);
+            }
+        }
+        return rank;
+    }
+
+    private static void onNeighborContracted(int node, int neighbor, int[] contractedNeighbors, int[] levels) {
+        contractedNeighbors[neighbor]++;
+        levels[neighbor] = Math.max(levels[neighbor], levels[node] + 1);
+    }
+
+    // edge difference plus spatial uniformity terms; lower values are contracted first
+    private int priority(int node, int[] rank, int[] contractedNeighbors, int[] levels) {
+        int activeEdges = 0;
+        for (int neighbor : outEdges.get(node).keySet()) if (rank[neighbor] < 0) activeEdges++;
+        for (int neighbor : inEdges.get(node).keySet()) if (rank[neighbor] < 0) activeEdges++;
+        return 2 * (shortcuts(node, rank, SIMULATION_SETTLED_LIMIT).size() - activeEdges)
+                + contractedNeighbors[node] + levels[node];
+    }
+
+    private List<int[]> shortcuts(int node, int[] rank, int settledLimit) {
+        List<int[]> shortcuts = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> in : inEdges.get(node).entrySet()) {
+            int from = in.getKey();
+            if (rank[from] >= 0) continue;
+
+            int maxDistance = -1;
+            for (Map.Entry<Integer, int[]> out : outEdges.get(node).entrySet()) {
+                if (rank[out.getKey()] < 0 && out.getKey() != from) {
+                    maxDistance = Math.max(maxDistance, in.getValue()[0] + out.getValue()[0]);
+                }
+            }
+            if (maxDistance < 0) continue;
+
+            Map<Integer, Integer> witnessDistances = witnessSearch(from, node, maxDistance, rank, settledLimit);
+            for (Map.Entry<Integer, int[]> out : outEdges.get(node).entrySet()) {
+                int to = out.getKey();
+                if (rank[to] >= 0 || to == from) continue;
+                int viaDistance = in.getValue()[0] + out.getValue()[0];
+                Integer witnessDistance = witnessDistances.get(to);
+                if (witnessDistance == null || witnessDistance > viaDistance) {
+                    shortcuts.add(new int[]{from, to, viaDistance, in.getValue()[1] + out.getValue()[1]});
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    private Map<Integer, Integer> witnessSearch(int source, int excluded, int maxDistance, int[] rank, int settledLimit) {
+        Map<Integer, Integer> distances = new HashMap<>();
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        distances.put(source, 0);
+        queue.add(new long[]{0, source});
+
+        int settled = 0;
+        while (!queue.isEmpty() && settled < settledLimit) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > distances.get(node)) continue;
+            if (entry[0] > maxDistance) break;
+            settled++;
+
+            for (Map.Entry<Integer, int[]> edge : outEdges.get(node).entrySet()) {
+                int next = edge.getKey();
+                if (next == excluded || rank[next] >= 0) continue;
+                int distance = (int) entry[0] + edge.getValue()[0];
+                Integer known = distances.get(next);
+                if (known == null || distance < known) {
+                    distances.put(next, distance);
+                    queue.add(new long[]{distance, next});
+                }
+            }
+        }
+        return distances;
+    }
+
+    private void putEdge(int from, int to, int distance, int duration) {
+        int[] existing = outEdges.get(from).get(to);
+        if (existing != null && existing[0] <= distance) return;
+        int[] edge = {distance, duration};
+        outEdges.get(from).put(to, edge);
+        inEdges.get(to).put(from, edge);
+    }
+
+    private static int[] prefixSums(int[] counts) {
+        int[] first = new int[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) first[i + 1] = first[i] + counts[i];
+        return first;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ContractionHierarchyBuilder <nodes.csv> <edges.csv> <output.graph>");
+            System.exit(1);
+        }
+
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder();
+        Map<Long, Integer> nodeIds = new HashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                if (columns.length < 3 || !Character.isDigit(columns[0].trim().charAt(0))) continue;
+                nodeIds.put(Long.parseLong(columns[0].trim()),
+                        builder.addNode(Double.parseDouble(columns[1].trim()), Double.parseDouble(columns[2].trim())));
+            }
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[1]))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                if (columns.length < 4 || !Character.isDigit(columns[0].trim().charAt(0))) continue;
+                Integer from = nodeIds.get(Long.parseLong(columns[0].trim()));
+                Integer to = nodeIds.get(Long.parseLong(columns[1].trim()));
+                if (from == null || to == null) continue;
+                double distance = Double.parseDouble(columns[2].trim());
+                double duration = Double.parseDouble(columns[3].trim());
+                boolean oneway = columns.length > 4 && columns[4].trim().equals("1");
+
+                builder.addEdge(from, to, distance, duration);
+                if (!oneway) builder.addEdge(to, from, distance, duration);
+            }
+        }
+
+        builder.writeTo(Path.of(args[2]));
+        System.out.println("Wrote contraction hierarchy for " + nodeIds.size() + " nodes to " + args[2]);
+    }
+}
@@ -0,0 +1,345 @@
+package com.project.uber.Uber.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Read-only contraction hierarchy produced by {@link ContractionHierarchyBuilder}.
+ * <p>
+ * Layout (little endian ints): header, node latitudes and longitudes in micro-degrees, then the upward
+ * and downward edges as CSR arrays with distances in decimeters and durations in deciseconds.
+ * Queries run a bidirectional upward Dijkstra and are safe to call from many threads.
+ */
+public class ContractionHierarchyGraph {
+
+    static final int MAGIC = 0x48435247;
+    static final int VERSION = 1;
+    static final int HEADER_INTS = 5;
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final double SNAP_CELL_SIZE_IN_DEGREES = 0.005;
+    private static final int SNAP_LON_OFFSET = (int) Math.ceil(180 / SNAP_CELL_SIZE_IN_DEGREES) + 1;
+    private static final int SNAP_LAT_OFFSET = (int) Math.ceil(90 / SNAP_CELL_SIZE_IN_DEGREES) + 1;
+
+    private final int nodeCount;
+    private final IntBuffer latitudes;
+    private final IntBuffer longitudes;
+    private final IntBuffer upFirst;
+    private final IntBuffer upTarget;
+    private final IntBuffer upDistance;
+    private final IntBuffer upDuration;
+    private final IntBuffer downFirst;
+    private final IntBuffer downSource;
+    private final IntBuffer downDistance;
+    private final IntBuffer downDuration;
+
+    private final long[] snapCellKeys;
+    private final int[] snapCellStart;
+    private final int[] snapNodes;
+
+    private final Queue<QueryState> idleStates = new ConcurrentLinkedQueue<>();
+
+    public static ContractionHierarchyGraph load(Path path, boolean memoryMap) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer;
+            if (memoryMap) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } else {
+                buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) ;
+                buffer.flip();
+            }
+            return new ContractionHierarchyGraph(buffer);
+        }
+    }
+
+    private ContractionHierarchyGraph(ByteBuffer buffer) throws IOException {
+        IntBuffer header = view(buffer, 0, HEADER_INTS);
+        if (header.get(0) != MAGIC || header.get(1) != VERSION) {
+            throw new IOException("Unsupported road graph file format");
+        }
+        nodeCount = header.get(2);
+        int upEdgeCount = header.get(3);
+        int downEdgeCount = header.get(4);
+
+        int offset = HEADER_INTS;
+        latitudes = view(buffer, offset, nodeCount);
+        offset += nodeCount;
+        longitudes = view(buffer, offset, nodeCount);
+        offset += nodeCount;
+        upFirst = view(buffer, offset, nodeCount + 1);
+        offset += nodeCount + 1;
+        upTarget = view(buffer, offset, upEdgeCount);
+        offset += upEdgeCount;
+        upDistance = view(buffer, offset, upEdgeCount);
+        offset += upEdgeCount;
+        upDuration = view(buffer, offset, upEdgeCount);
+        offset += upEdgeCount;
+        downFirst = view(buffer, offset, nodeCount + 1);
+        offset += nodeCount + 1;
+        downSource = view(buffer, offset, downEdgeCount);
+        offset += downEdgeCount;
+        downDistance = view(buffer, offset, downEdgeCount);
+        offset += downEdgeCount;
+        downDuration = view(buffer, offset, downEdgeCount);
+
+        // node ids sorted by snapping cell, packed as (cell << 30 | node) so a primitive sort suffices
+        long[] sorted = new long[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            sorted[node] = (snapCellKey(lon(node), lat(node)) << 30) | node;
+        }
+        Arrays.sort(sorted);
+
+        long[] cellKeys = new long[nodeCount];
+        int[] cellStart = new int[nodeCount + 1];
+        snapNodes = new int[nodeCount];
+        int cellCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            long cellKey = sorted[i] >>> 30;
+            if (cellCount == 0 || cellKeys[cellCount - 1] != cellKey) {
+                cellKeys[cellCount] = cellKey;
+                cellStart[cellCount++] = i;
+            }
+            snapNodes[i] = (int) (sorted[i] & ((1L << 30) - 1));
+        }
+        cellStart[cellCount] = nodeCount;
+        snapCellKeys = Arrays.copyOf(cellKeys, cellCount);
+        snapCellStart = Arrays.copyOf(cellStart, cellCount + 1);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    // returns null when either point is too far from the road network or no route connects them
+    public Route route(double srcLon, double srcLat, double desLon, double desLat, double maxSnapDistanceInMeters) {
+        int source = nearestNode(srcLon, srcLat, maxSnapDistanceInMeters);
+        int target = nearestNode(desLon, desLat, maxSnapDistanceInMeters);
+        if (source < 0 || target < 0) return null;
+
+        double snapDistanceInMeters = GeometryUtil.distanceInMeters(srcLon, srcLat, lon(source), lat(source))
+                + GeometryUtil.distanceInMeters(desLon, desLat, lon(target), lat(target));
+        if (source == target) return new Route(snapDistanceInMeters, 0);
+
+        QueryState state = idleStates.poll();
+        if (state == null) state = new QueryState(nodeCount);
+        try {
+            state.search(source, target);
+            if (state.bestDistance == INFINITY) return null;
+            return new Route(state.bestDistance / 10.0 + snapDistanceInMeters, state.bestDuration / 10.0);
+        } finally {
+            state.reset();
+            idleStates.offer(state);
+        }
+    }
+
+    int nearestNode(double lon, double lat, double maxDistanceInMeters) {
+        int lonIndex = GeometryUtil.cellIndex(lon, SNAP_CELL_SIZE_IN_DEGREES);
+        int latIndex = GeometryUtil.cellIndex(lat, SNAP_CELL_SIZE_IN_DEGREES);
+        double minCellSizeInMeters = SNAP_CELL_SIZE_IN_DEGREES * GeometryUtil.METERS_PER_DEGREE
+                * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        int maxRing = (int) Math.ceil(maxDistanceInMeters / minCellSizeInMeters);
+
+        int nearest = -1;
+        double nearestDistance = maxDistanceInMeters;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    if (Math.abs(dx) != ring && Math.abs(dy) != ring) continue;
+                    int cell = Arrays.binarySearch(snapCellKeys, snapCellKey(lonIndex + dx, latIndex + dy));
+                    if (cell < 0) continue;
+                    for (int i = snapCellStart[cell]; i < snapCellStart[cell + 1]; i++) {
+                        int node = snapNodes[i];
+                        double distance = GeometryUtil.distanceInMeters(lon, lat, lon(node), lat(node));
+                        if (distance <= nearestDistance) {
+                            nearest = node;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+            if (nearest >= 0 && nearestDistance <= ring * minCellSizeInMeters) break;
+        }
+        return nearest;
+    }
+
+    private double lon(int node) {
+        return longitudes.get(node) / 1e6;
+    }
+
+    private double lat(int node) {
+        return latitudes.get(node) / 1e6;
+    }
+
+    private static long snapCellKey(double lon, double lat) {
+        return snapCellKey(GeometryUtil.cellIndex(lon, SNAP_CELL_SIZE_IN_DEGREES),
+                GeometryUtil.cellIndex(lat, SNAP_CELL_SIZE_IN_DEGREES));
+    }
+
+    private static long snapCellKey(int lonIndex, int latIndex) {
+        return ((long) (lonIndex + SNAP_LON_OFFSET) << 16) | (latIndex + SNAP_LAT_OFFSET);
+    }
+
+    private static IntBuffer view(ByteBuffer buffer, int offsetInInts, int lengthInInts) {
+        return buffer
+                .slice(offsetInInts * Integer.BYTES, lengthInInts * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer();
+    }
+
+    public static final class Route {
+        private final double distanceInMeters;
+        private final double durationInSeconds;
+
+        public Route(double distanceInMeters, double durationInSeconds) {
+            this.distanceInMeters = distanceInMeters;
+            this.durationInSeconds = durationInSeconds;
+        }
+
+        public double getDistanceInMeters() {
+            return distanceInMeters;
+        }
+
+        public double getDurationInSeconds() {
+            return durationInSeconds;
+        }
+    }
+
+    // per-query scratch space, pooled so concurrent queries never share arrays and never reallocate them
+    private final class QueryState {
+        private final int[] forwardDistance;
+        private final int[] forwardDuration;
+        private final int[] backwardDistance;
+        private final int[] backwardDuration;
+        private final MinHeap forwardHeap = new MinHeap();
+        private final MinHeap backwardHeap = new MinHeap();
+        private int[] touched = new int[64];
+        private int touchedCount;
+        private int bestDistance;
+        private int bestDuration;
+
+        private QueryState(int nodeCount) {
+            forwardDistance = new int[nodeCount];
+            forwardDuration = new int[nodeCount];
+            backwardDistance = new int[nodeCount];
+            backwardDuration = new int[nodeCount];
+            Arrays.fill(forwardDistance, INFINITY);
+            Arrays.fill(backwardDistance, INFINITY);
+        }
+
+        private void search(int source, int target) {
+            bestDistance = INFINITY;
+            relax(forwardDistance, forwardDuration, forwardHeap, source, 0, 0);
+            relax(backwardDistance, backwardDuration, backwardHeap, target, 0, 0);
+
+            // both searches only climb the hierarchy, so stop once neither frontier can beat the best meeting
+            while (true) {
+                long forwardMin = forwardHeap.isEmpty() ? INFINITY : forwardHeap.peek() >>> 32;
+                long backwardMin = backwardHeap.isEmpty() ? INFINITY : backwardHeap.peek() >>> 32;
+                if (Math.min(forwardMin, backwardMin) >= bestDistance) return;
+
+                if (forwardMin <= backwardMin) {
+                    settle(forwardHeap, forwardDistance, forwardDuration, backwardDistance, backwardDuration,
+                            upFirst, upTarget, upDistance, upDuration);
+                } else {
+                    settle(backwardHeap, backwardDistance, backwardDuration, forwardDistance, forwardDuration,
+                            downFirst, downSource, downDistance, downDuration);
+                }
+            }
+        }
+
+        private void settle(MinHeap heap, int[] distance, int[] duration, int[] otherDistance, int[] otherDuration,
+                            IntBuffer first, IntBuffer neighbor, IntBuffer edgeDistance, IntBuffer edgeDuration) {
+            long entry = heap.poll();
+            int node = (int) entry;
+            int nodeDistance = (int) (entry >>> 32);
+            if (nodeDistance > distance[node]) return;
+
+            if (otherDistance[node] != INFINITY && (long) nodeDistance + otherDistance[node] < bestDistance) {
+                bestDistance = nodeDistance + otherDistance[node];
+                bestDuration = duration[node] + otherDuration[node];
+            }
+
+            for (int edge = first.get(node), end = first.get(node + 1); edge < end; edge++) {
+                long candidate = (long) nodeDistance + edgeDistance.get(edge);
+                int next = neighbor.get(edge);
+                if (candidate < distance[next]) {
+                    relax(distance, duration, heap, next, (int) candidate, duration[node] + edgeDuration.get(edge));
+                }
+            }
+        }
+
+        private void relax(int[] distance, int[] duration, MinHeap heap, int node, int nodeDistance, int nodeDuration) {
+            if (distance[node] == INFINITY) {
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                touched[touchedCount++] = node;
+            }
+            distance[node] = nodeDistance;
+            duration[node] = nodeDuration;
+            heap.push(((long) nodeDistance << 32) | node);
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                forwardDistance[touched[i]] = INFINITY;
+                backwardDistance[touched[i]] = INFINITY;
+            }
+            touchedCount = 0;
+            forwardHeap.clear();
+            backwardHeap.clear();
+        }
+    }
+
+    private static final class MinHeap {
+        private long[] entries = new long[64];
+        private int size;
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private long peek() {
+            return entries[0];
+        }
+
+        private void push(long entry) {
+            if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (entries[parent] <= entry) break;
+                entries[index] = entries[parent];
+                index = parent;
+            }
+            entries[index] = entry;
+        }
+
+        private long poll() {
+            long top = entries[0];
+            long last = entries[--size];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) break;
+                if (child + 1 < size && entries[child + 1] < entries[child]) child++;
+                if (entries[child] >= last) break;
+                entries[index] = entries[child];
+                index = child;
+            }
+            entries[index] = last;
+            return top;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+}
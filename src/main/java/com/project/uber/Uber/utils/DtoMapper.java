@@ -0,0 +1,112 @@
+package com.project.uber.Uber.utils;
+
+import com.project.uber.Uber.dto.*;
+import com.project.uber.Uber.entities.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+// field-by-field entity <-> DTO mapping; keep in sync with the DTO fields when either side changes
+public class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    public static UserDto toUserDto(User user) {
+        if (user == null) return null;
+        return new UserDto(user.getName(), user.getEmail(),
+                user.getRoles() == null ? null : new HashSet<>(user.getRoles()));
+    }
+
+    public static User toUser(SignupDto signupDto) {
+        User user = new User();
+        user.setName(signupDto.getName());
+        user.setEmail(signupDto.getEmail());
+        user.setPassword(signupDto.getPassword());
+        return user;
+    }
+
+    public static RiderDto toRiderDto(Rider rider) {
+        if (rider == null) return null;
+        return new RiderDto(toUserDto(rider.getUser()), rider.getRating(), rider.getId());
+    }
+
+    public static DriverDto toDriverDto(Driver driver) {
+        if (driver == null) return null;
+        return new DriverDto(driver.getId(), toUserDto(driver.getUser()), driver.getRating(),
+                driver.getAvailable(), driver.getVehicleId());
+    }
+
+    public static RideDto toRideDto(Ride ride) {
+        if (ride == null) return null;
+        return new RideDto(ride.getId(), GeometryUtil.createPointDto(ride.getPickUpLocation()),
+                toRiderDto(ride.getRider()), ride.getOtp(), toDriverDto(ride.getDriver()),
+                GeometryUtil.createPointDto(ride.getDropOffLocation()), ride.getCreatedTime(),
+                ride.getPaymentMethod(), ride.getStatus(), ride.getFare(), ride.getStartedAt(), ride.getEndedAt());
+    }
+
+    public static DriverRideDto toDriverRideDto(Ride ride) {
+        if (ride == null) return null;
+        return new DriverRideDto(ride.getId(), GeometryUtil.createPointDto(ride.getPickUpLocation()),
+                GeometryUtil.createPointDto(ride.getDropOffLocation()), ride.getCreatedTime(),
+                toRiderDto(ride.getRider()), toDriverDto(ride.getDriver()), ride.getPaymentMethod(),
+                ride.getStatus(), ride.getFare(), ride.getStartedAt(), ride.getEndedAt());
+    }
+
+    public static RideRequestDto toRideRequestDto(RideRequest rideRequest) {
+        if (rideRequest == null) return null;
+        return new RideRequestDto(rideRequest.getId(), GeometryUtil.createPointDto(rideRequest.getPickUpLocation()),
+                rideRequest.getFare(), GeometryUtil.createPointDto(rideRequest.getDropOffLocation()),
+                rideRequest.getRequestTime(), toRiderDto(rideRequest.getRider()),
+                rideRequest.getPaymentMethod(), rideRequest.getStatus());
+    }
+
+    // id, rider, fare and status are always decided server-side, so they are not taken from the request body
+    public static RideRequest toRideRequest(RideRequestDto rideRequestDto) {
+        RideRequest rideRequest = new RideRequest();
+        rideRequest.setPickUpLocation(GeometryUtil.createPoint(rideRequestDto.getPickUpLocation()));
+        rideRequest.setDropOffLocation(GeometryUtil.createPoint(rideRequestDto.getDropOffLocation()));
+        rideRequest.setPaymentMethod(rideRequestDto.getPaymentMethod());
+        return rideRequest;
+    }
+
+    public static Ride toRide(RideRequest rideRequest) {
+        Ride ride = new Ride();
+        ride.setPickUpLocation(rideRequest.getPickUpLocation());
+        ride.setDropOffLocation(rideRequest.getDropOffLocation());
+        ride.setRider(rideRequest.getRider());
+        ride.setPaymentMethod(rideRequest.getPaymentMethod());
+        ride.setFare(rideRequest.getFare());
+        return ride;
+    }
+
+    public static WalletDto toWalletDto(Wallet wallet) {
+        if (wallet == null) return null;
+        List<WalletTransactionDto> transactions = null;
+        if (wallet.getTransactions() != null) {
+            transactions = new ArrayList<>(wallet.getTransactions().size());
+            for (WalletTransaction transaction : wallet.getTransactions()) {
+                transactions.add(toWalletTransactionDto(transaction));
+            }
+        }
+        return new WalletDto(wallet.getId(), toUserDto(wallet.getUser()),
+                wallet.getBalanceInMinorUnits() == null ? null : MoneyUtil.fromMinorUnits(wallet.getBalanceInMinorUnits()),
+                transactions);
+    }
+
+    // the wallet back-reference is left out to keep the DTO graph acyclic
+    public static WalletTransactionDto toWalletTransactionDto(WalletTransaction transaction) {
+        if (transaction == null) return null;
+        return new WalletTransactionDto
+                .WalletTransactionDtoBuilder()
+                .id(transaction.getId())
+                .amount(transaction.getAmount())
+                .transactionType(transaction.getTransactionType())
+                .transactionMethod(transaction.getTransactionMethod())
+                .ride(toRideDto(transaction.getRide()))
+                .transactionId(transaction.getTransactionId())
+                .timestamp(transaction.getTimestamp())
+                .build();
+    }
+}
@@ -8,10 +8,43 @@ import org.locationtech.jts.geom.PrecisionModel;
 
 public class GeometryUtil {
 
+    public static final double EARTH_RADIUS_IN_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_IN_METERS / 180.0;
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(),4326);
+
     public static Point createPoint(PointDto pointDto){
-        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(),4326);
         Coordinate coordinate = new Coordinate(pointDto.getCoordinates()[0],pointDto.getCoordinates()[1]);
 
-        return geometryFactory.createPoint(coordinate);
+        return GEOMETRY_FACTORY.createPoint(coordinate);
+    }
+
+    public static PointDto createPointDto(Point point){
+        if (point == null) return null;
+        return new PointDto(new double[]{point.getX(), point.getY()});
+    }
+
+    public static double distanceInMeters(double srcLon, double srcLat, double desLon, double desLat){
+        double dLat = Math.toRadians(desLat - srcLat);
+        double dLon = Math.toRadians(desLon - srcLon);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(srcLat)) * Math.cos(Math.toRadians(desLat)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_IN_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static double distanceInMeters(Point src, Point des){
+        return distanceInMeters(src.getX(), src.getY(), des.getX(), des.getY());
+    }
+
+    public static int cellIndex(double degrees, double cellSizeInDegrees){
+        return (int) Math.floor(degrees / cellSizeInDegrees);
+    }
+
+    public static long cellKey(int lonIndex, int latIndex){
+        return ((long) lonIndex << 32) | (latIndex & 0xffffffffL);
+    }
+
+    public static long cellKey(double lon, double lat, double cellSizeInDegrees){
+        return cellKey(cellIndex(lon, cellSizeInDegrees), cellIndex(lat, cellSizeInDegrees));
     }
 }
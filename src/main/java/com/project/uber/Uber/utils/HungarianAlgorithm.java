@@ -0,0 +1,89 @@
+package com.project.uber.Uber.utils;
+
+import java.util.Arrays;
+
+public class HungarianAlgorithm {
+
+    // rectangular min-cost assignment in O(n^2 * m); returns the column of every row, or -1 if left unassigned
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) return new int[0];
+        int columns = cost[0].length;
+        if (columns == 0) {
+            int[] unassigned = new int[rows];
+            Arrays.fill(unassigned, -1);
+            return unassigned;
+        }
+
+        if (rows > columns) {
+            double[][] transposed = new double[columns][rows];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) transposed[j][i] = cost[i][j];
+            }
+            int[] columnAssignment = solve(transposed);
+            int[] assignment = new int[rows];
+            Arrays.fill(assignment, -1);
+            for (int j = 0; j < columns; j++) {
+                if (columnAssignment[j] >= 0) assignment[columnAssignment[j]] = j;
+            }
+            return assignment;
+        }
+
+        double[] rowPotential = new double[rows + 1];
+        double[] columnPotential = new double[columns + 1];
+        int[] rowOfColumn = new int[columns + 1];
+        int[] previousColumn = new int[columns + 1];
+        double[] minSlack = new double[columns + 1];
+        boolean[] used = new boolean[columns + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+
+            do {
+                used[column] = true;
+                int currentRow = rowOfColumn[column];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextColumn = 0;
+
+                for (int j = 1; j <= columns; j++) {
+                    if (used[j]) continue;
+                    double slack = cost[currentRow - 1][j - 1] - rowPotential[currentRow] - columnPotential[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        previousColumn[j] = column;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        nextColumn = j;
+                    }
+                }
+
+                for (int j = 0; j <= columns; j++) {
+                    if (used[j]) {
+                        rowPotential[rowOfColumn[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+
+            do {
+                int previous = previousColumn[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= columns; j++) {
+            if (rowOfColumn[j] != 0) assignment[rowOfColumn[j] - 1] = j - 1;
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.uber.Uber.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// amounts are held as long paise inside wallets; rupee doubles are only used at the API and fare boundaries
+public class MoneyUtil {
+
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    public static long toMinorUnits(double amount) {
+        return BigDecimal.valueOf(amount)
+                .setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    public static double fromMinorUnits(long amountInMinorUnits) {
+        return BigDecimal.valueOf(amountInMinorUnits, MINOR_UNIT_SCALE).doubleValue();
+    }
+
+    public static long percentageOf(long amountInMinorUnits, double fraction) {
+        return BigDecimal.valueOf(amountInMinorUnits)
+                .multiply(BigDecimal.valueOf(fraction))
+                .setScale(0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+}
@@ -0,0 +1,20 @@
+-- One-off migration of wallet balances from the legacy double rupee column to long paise.
+-- Run by an operator once, before any node on the minor-unit release takes traffic
+-- (ddl-auto=update adds balance_in_minor_units when the first new node starts; the ALTER below
+-- does the same if the script runs first). Old nodes must be drained before running it, since
+-- they keep writing the legacy column.
+--
+-- The legacy column is only relaxed here, not dropped, so a rollback still finds it.
+-- Drop it in a later release with: ALTER TABLE wallet DROP COLUMN balance;
+
+BEGIN;
+
+ALTER TABLE wallet ADD COLUMN IF NOT EXISTS balance_in_minor_units bigint NOT NULL DEFAULT 0;
+
+UPDATE wallet
+SET balance_in_minor_units = ROUND(CAST(balance AS numeric) * 100)
+WHERE balance IS NOT NULL;
+
+ALTER TABLE wallet ALTER COLUMN balance DROP NOT NULL;
+
+COMMIT;
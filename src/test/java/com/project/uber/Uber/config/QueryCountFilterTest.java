@@ -0,0 +1,90 @@
+package com.project.uber.Uber.config;
+
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.repositories.RiderRepository;
+import com.project.uber.Uber.security.IdentityContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// reads statement counts back from http.server.requests.queries; without a database, the repositories stand in for
+// Hibernate and hand each statement they would prepare to the inspector
+class QueryCountFilterTest {
+
+    private static final String URI = "/riders/getMyRideHistory";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountFilter queryCountFilter = new QueryCountFilter(meterRegistry);
+    private final QueryCountInspector inspector = new QueryCountInspector();
+    private final RiderRepository riderRepository = mock(RiderRepository.class);
+    private final DriverRepository driverRepository = mock(DriverRepository.class);
+
+    QueryCountFilterTest() {
+        when(riderRepository.findIdByUserId(anyLong())).thenAnswer(invocation -> {
+            inspector.inspect("select r.id from rider r where r.user_id=?");
+            return Optional.of(7L);
+        });
+    }
+
+    @Test
+    void eachRequestRecordsOnlyItsOwnStatements() throws Exception {
+        inspector.inspect("select 1");
+
+        perform(URI, (request, response) -> {
+            inspector.inspect("select * from ride where rider_id=?");
+            inspector.inspect("select count(*) from ride where rider_id=?");
+        });
+        perform(URI, (request, response) -> inspector.inspect("select * from ride where rider_id=?"));
+
+        DistributionSummary queries = queries();
+        assertThat(queries.count()).isEqualTo(2);
+        assertThat(queries.totalAmount()).isEqualTo(3);
+        assertThat(queries.max()).isEqualTo(2);
+    }
+
+    @Test
+    void riderIdFromTheTokenCostsNoQueries() throws Exception {
+        perform(URI, (request, response) -> {
+            IdentityContext identityContext = new IdentityContext(riderRepository, driverRepository);
+            identityContext.setIdentity(1L, 7L, null);
+            identityContext.getRiderId();
+            identityContext.getRiderId();
+        });
+
+        assertThat(queries().max()).isZero();
+    }
+
+    @Test
+    void riderIdMissingFromTheTokenIsLookedUpOncePerRequest() throws Exception {
+        perform(URI, (request, response) -> {
+            IdentityContext identityContext = new IdentityContext(riderRepository, driverRepository);
+            identityContext.setIdentity(1L, null, null);
+            identityContext.getRiderId();
+            identityContext.getRiderId();
+            identityContext.getRiderId();
+        });
+
+        assertThat(queries().max()).isEqualTo(1);
+    }
+
+    private void perform(String pattern, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        queryCountFilter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private DistributionSummary queries() {
+        return meterRegistry.get("http.server.requests.queries").tag("method", "GET").tag("uri", URI).summary();
+    }
+}
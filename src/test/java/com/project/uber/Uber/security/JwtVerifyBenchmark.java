@@ -0,0 +1,51 @@
+package com.project.uber.Uber.security;
+
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.entities.enums.Roles;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// plain main, not run by surefire: verifies the same access token repeatedly, with the key and parser built per call
+// (the old JwtService), built once, and built once with the verified-token cache
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private static Object sink;
+
+    public static void main(String[] args) {
+        User user = new User(7L, "Ann", "ann@test.com", "password", new HashSet<>(Set.of(Roles.RIDER)));
+        JwtService uncached = jwtService(false);
+        JwtService cached = jwtService(true);
+        String token = uncached.getAccessJwtToken(user, 3L, null, UUID.randomUUID());
+
+        run("key and parser per call", () -> Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload());
+        run("key and parser built once", () -> uncached.getAuthenticationClaims(token));
+        run("verified-token cache", () -> cached.getAuthenticationClaims(token));
+    }
+
+    private static JwtService jwtService(boolean cacheEnabled) {
+        return new JwtService(new SimpleMeterRegistry(), SECRET, "k1", List.of(), 600, cacheEnabled, 1000, 60);
+    }
+
+    private static void run(String name, Supplier<Object> verify) {
+        for (int i = 0; i < WARMUP; i++) sink = verify.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink = verify.get();
+        System.out.printf("%-28s %10.2f us/op%n", name, (System.nanoTime() - start) / 1000.0 / ITERATIONS);
+    }
+}
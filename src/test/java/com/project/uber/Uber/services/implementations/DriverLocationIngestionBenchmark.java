@@ -0,0 +1,93 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.dto.PointDto;
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.security.IdentityContext;
+import com.project.uber.Uber.utils.GeometryUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// plain main, not run by surefire: location pings from many drivers against the real index and coalescing buffer,
+// with the database replaced by a counter of the batch statements and rows the flush job would send
+public class DriverLocationIngestionBenchmark {
+
+    private static final int DRIVERS = 20_000;
+    private static final int THREADS = 8;
+    private static final long DURATION_IN_MILLIS = 10_000;
+    private static final long FLUSH_INTERVAL_IN_MILLIS = 1_000;
+    private static final int BATCH_SIZE = 500;
+
+    public static void main(String[] args) throws Exception {
+        ThreadLocal<Long> currentDriverId = new ThreadLocal<>();
+        // a plain subclass rather than a mock, so the harness does not measure Mockito's invocation recording
+        IdentityContext identityContext = new IdentityContext(null, null) {
+            @Override
+            public Long getDriverId() {
+                return currentDriverId.get();
+            }
+        };
+
+        LongAdder statements = new LongAdder();
+        LongAdder rowsWritten = new LongAdder();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(1);
+            statements.increment();
+            rowsWritten.add(rows.size());
+            return new int[rows.size()];
+        });
+
+        DriverLocationIndexServiceImpl index = new DriverLocationIndexServiceImpl(mock(DriverRepository.class), 0.01);
+        for (long id = 1; id <= DRIVERS; id++) {
+            Driver driver = new Driver();
+            driver.setId(id);
+            driver.setAvailable(true);
+            driver.setRating(4.5);
+            driver.setCurrentLocation(GeometryUtil.createPoint(new PointDto(new double[]{77.2, 28.6})));
+            index.indexDriver(driver);
+        }
+        DriverLocationServiceImpl locations = new DriverLocationServiceImpl(identityContext, index, jdbcTemplate, BATCH_SIZE);
+
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(locations::flushPendingLocations,
+                FLUSH_INTERVAL_IN_MILLIS, FLUSH_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+
+        LongAdder pings = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_IN_MILLIS);
+        Thread[] senders = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            senders[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    currentDriverId.set(random.nextLong(1, DRIVERS + 1));
+                    locations.updateCurrentLocation(new PointDto(new double[]{
+                            77.0 + random.nextDouble(0.4), 28.4 + random.nextDouble(0.4)}));
+                    pings.increment();
+                }
+            });
+            senders[t].start();
+        }
+        for (Thread sender : senders) sender.join();
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        locations.flushPendingLocations();
+
+        double seconds = DURATION_IN_MILLIS / 1000.0;
+        System.out.printf("%d drivers, %d threads, %.0f s%n", DRIVERS, THREADS, seconds);
+        System.out.printf("pings accepted      %,12d  (%,.0f /s)%n", pings.sum(), pings.sum() / seconds);
+        System.out.printf("rows written        %,12d  (%.1f%% of pings)%n", rowsWritten.sum(), 100.0 * rowsWritten.sum() / pings.sum());
+        System.out.printf("batch statements    %,12d  (per-ping UPDATEs would be %,d)%n", statements.sum(), pings.sum());
+    }
+}
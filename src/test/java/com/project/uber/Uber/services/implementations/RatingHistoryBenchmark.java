@@ -0,0 +1,110 @@
+package com.project.uber.Uber.services.implementations;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// plain main, not run by surefire: rating latency against the size of the driver's rating history on a real PostgreSQL.
+// Usage: RatingHistoryBenchmark jdbc:postgresql://host/db user password
+// Everything lives in temp tables on one connection, so it can be pointed at any database.
+public class RatingHistoryBenchmark {
+
+    private static final int[] HISTORY_SIZES = {0, 100, 1_000, 10_000, 100_000};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    // the old path: load every rating of the driver, average in Java, save the driver
+    // (it went through JPA, which also hydrated each Rating entity, so this understates its cost)
+    private static final String LOAD_HISTORY_SQL = "SELECT driver_rating FROM rating WHERE driver_id = ?";
+    private static final String SAVE_RATING_SQL = "UPDATE driver SET rating = ? WHERE id = ?";
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 3) {
+            System.err.println("Usage: RatingHistoryBenchmark <jdbcUrl> <user> <password>");
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            createTables(connection);
+            System.out.printf("%10s %16s %16s%n", "history", "load+avg us/op", "aggregate us/op");
+            for (int driverId = 0; driverId < HISTORY_SIZES.length; driverId++) {
+                int history = HISTORY_SIZES[driverId];
+                seed(connection, driverId, history);
+                double old = time(connection, driverId, RatingHistoryBenchmark::rateByHistory);
+                double aggregate = time(connection, driverId, RatingHistoryBenchmark::rateByAggregate);
+                System.out.printf("%10d %16.1f %16.1f%n", history, old, aggregate);
+            }
+        }
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE driver (id bigint PRIMARY KEY, rating double precision, " +
+                    "rating_count bigint NOT NULL DEFAULT 0, rating_sum double precision NOT NULL DEFAULT 0)");
+            statement.execute("CREATE TEMP TABLE rating (id bigserial PRIMARY KEY, driver_id bigint, driver_rating double precision)");
+            statement.execute("CREATE INDEX ON rating (driver_id)");
+        }
+    }
+
+    private static void seed(Connection connection, long driverId, int history) throws SQLException {
+        try (PreparedStatement insertDriver = connection.prepareStatement(
+                "INSERT INTO driver (id, rating, rating_count, rating_sum) VALUES (?, 4.0, ?, ?)");
+             PreparedStatement insertHistory = connection.prepareStatement(
+                     "INSERT INTO rating (driver_id, driver_rating) SELECT ?, 1 + (g % 5) FROM generate_series(1, ?) g")) {
+            insertDriver.setLong(1, driverId);
+            insertDriver.setLong(2, history);
+            insertDriver.setDouble(3, history * 3.0);
+            insertDriver.executeUpdate();
+            insertHistory.setLong(1, driverId);
+            insertHistory.setInt(2, history);
+            insertHistory.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE rating");
+        }
+    }
+
+    private static double time(Connection connection, long driverId, RatingCall call) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) call.rate(connection, driverId, 4.0);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) call.rate(connection, driverId, 4.0);
+        return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+    }
+
+    private static void rateByHistory(Connection connection, long driverId, double rating) throws SQLException {
+        double sum = rating;
+        long count = 1;
+        try (PreparedStatement load = connection.prepareStatement(LOAD_HISTORY_SQL)) {
+            load.setLong(1, driverId);
+            try (ResultSet rows = load.executeQuery()) {
+                while (rows.next()) {
+                    sum += rows.getDouble(1);
+                    count++;
+                }
+            }
+        }
+        try (PreparedStatement save = connection.prepareStatement(SAVE_RATING_SQL)) {
+            save.setDouble(1, sum / count);
+            save.setLong(2, driverId);
+            save.executeUpdate();
+        }
+    }
+
+    private static void rateByAggregate(Connection connection, long driverId, double rating) throws SQLException {
+        try (PreparedStatement rate = connection.prepareStatement(RatingManagementServiceImpl.RATE_DRIVER_SQL)) {
+            rate.setDouble(1, rating);
+            rate.setDouble(2, rating);
+            rate.setLong(3, driverId);
+            try (ResultSet row = rate.executeQuery()) {
+                row.next();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RatingCall {
+        void rate(Connection connection, long driverId, double rating) throws SQLException;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.dto.DriverDto;
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.entities.Rating;
+import com.project.uber.Uber.entities.Ride;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.repositories.RatingRepository;
+import com.project.uber.Uber.services.DriverLocationIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+// rating a driver is a fixed set of statements that never reads the rating history, however long it is
+class RatingManagementServiceImplTest {
+
+    private final RatingRepository ratingRepository = mock(RatingRepository.class);
+    private final DriverLocationIndexService driverLocationIndexService = mock(DriverLocationIndexService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Ride ride = new Ride();
+    private final Driver driver = new Driver();
+
+    private RatingManagementServiceImpl ratingManagementService;
+
+    @BeforeEach
+    void setUp() {
+        Rating rating = new Rating();
+        rating.setId(5L);
+        driver.setId(3L);
+        when(ratingRepository.findByRide(ride)).thenReturn(Optional.of(rating));
+        when(jdbcTemplate.queryForObject(eq(RatingManagementServiceImpl.RATE_DRIVER_SQL), eq(Double.class), any(), any(), any()))
+                .thenReturn(4.25);
+        ratingManagementService = new RatingManagementServiceImpl(ratingRepository, driverLocationIndexService,
+                jdbcTemplate, false, 1000, 1);
+    }
+
+    @Test
+    void rateDriverUpdatesTheAggregateInOneStatement() {
+        when(ratingRepository.setDriverRatingIfUnrated(5L, 5.0)).thenReturn(1);
+
+        DriverDto driverDto = ratingManagementService.rateDriver(ride, driver, 5.0);
+
+        assertThat(driverDto.getRating()).isEqualTo(4.25);
+        verify(ratingRepository).findByRide(ride);
+        verify(ratingRepository).setDriverRatingIfUnrated(5L, 5.0);
+        verify(jdbcTemplate).queryForObject(RatingManagementServiceImpl.RATE_DRIVER_SQL, Double.class, 5.0, 5.0, 3L);
+        verify(driverLocationIndexService).updateRating(3L, 4.25);
+        verifyNoMoreInteractions(ratingRepository, jdbcTemplate);
+    }
+
+    @Test
+    void indexSeesTheNewRatingOnlyAfterCommit() {
+        when(ratingRepository.setDriverRatingIfUnrated(5L, 5.0)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            ratingManagementService.rateDriver(ride, driver, 5.0);
+            verify(driverLocationIndexService, never()).updateRating(anyLong(), anyDouble());
+        } finally {
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+
+        verify(driverLocationIndexService).updateRating(3L, 4.25);
+    }
+
+    @Test
+    void ratingTheSameRideTwiceIsRejectedBeforeTheAggregateChanges() {
+        when(ratingRepository.setDriverRatingIfUnrated(anyLong(), anyDouble())).thenReturn(0);
+
+        assertThatThrownBy(() -> ratingManagementService.rateDriver(ride, driver, 5.0))
+                .isInstanceOf(RuntimeConflictException.class);
+        verify(jdbcTemplate, never()).queryForObject(eq(RatingManagementServiceImpl.RATE_DRIVER_SQL), eq(Double.class), any(), any(), any());
+    }
+}
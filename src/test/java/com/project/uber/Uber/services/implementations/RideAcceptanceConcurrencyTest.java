@@ -0,0 +1,213 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.entities.Ride;
+import com.project.uber.Uber.entities.RideRequest;
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.entities.enums.RideRequestStatus;
+import com.project.uber.Uber.exceptions.RuntimeConflictException;
+import com.project.uber.Uber.repositories.DriverRepository;
+import com.project.uber.Uber.repositories.RideRequestRepository;
+import com.project.uber.Uber.security.IdentityContext;
+import com.project.uber.Uber.services.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// races every offered driver on the same ride request; the claim map and the conditional update must let exactly one through
+class RideAcceptanceConcurrencyTest {
+
+    private static final int DRIVERS = 32;
+    private static final int ROUNDS = 50;
+
+    private final Map<Long, AtomicReference<RideRequestStatus>> statuses = new ConcurrentHashMap<>();
+    private final Map<Long, Driver> drivers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> currentDriverId = new ThreadLocal<>();
+    private final AtomicInteger ridesCreated = new AtomicInteger();
+    private final AtomicInteger conditionalUpdates = new AtomicInteger();
+
+    private RideRequestRepository rideRequestRepository;
+    private RideOfferServiceImpl rideOfferService;
+    private DriverServiceImpl driverService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        rideRequestRepository = mock(RideRequestRepository.class);
+        when(rideRequestRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            RideRequest rideRequest = new RideRequest();
+            rideRequest.setId(id);
+            rideRequest.setStatus(statuses.get(id).get());
+            return Optional.of(rideRequest);
+        });
+        when(rideRequestRepository.compareAndSetStatus(anyLong(), any(), any())).thenAnswer(invocation -> {
+            conditionalUpdates.incrementAndGet();
+            return statuses.get(invocation.<Long>getArgument(0))
+                    .compareAndSet(invocation.getArgument(1), invocation.getArgument(2)) ? 1 : 0;
+        });
+
+        DriverRepository driverRepository = mock(DriverRepository.class);
+        when(driverRepository.getReferenceById(anyLong())).thenAnswer(invocation -> drivers.get(invocation.<Long>getArgument(0)));
+        when(driverRepository.save(any(Driver.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RideService rideService = mock(RideService.class);
+        when(rideService.createNewRide(any(RideRequest.class), any(Driver.class))).thenAnswer(invocation -> {
+            ridesCreated.incrementAndGet();
+            Ride ride = new Ride();
+            ride.setDriver(invocation.getArgument(1));
+            return ride;
+        });
+
+        IdentityContext identityContext = mock(IdentityContext.class);
+        when(identityContext.getDriverId()).thenAnswer(invocation -> currentDriverId.get());
+
+        rideOfferService = new RideOfferServiceImpl(mock(NotificationService.class), mock(PushGatewayService.class),
+                new SimpleMeterRegistry(), DRIVERS, 60_000, 100);
+        driverService = new DriverServiceImpl(new RideRequestServiceImpl(rideRequestRepository),
+                mock(RatingManagementService.class), driverRepository, rideService, mock(PaymentService.class),
+                mock(DriverLocationIndexService.class), rideOfferService, identityContext);
+        executor = Executors.newFixedThreadPool(DRIVERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        rideOfferService.shutdown();
+    }
+
+    @Test
+    void concurrentAcceptsCreateExactlyOneRide() throws Exception {
+        for (long rideRequestId = 1; rideRequestId <= ROUNDS; rideRequestId++) {
+            ridesCreated.set(0);
+            statuses.put(rideRequestId, new AtomicReference<>(RideRequestStatus.PENDING));
+            rideOfferService.startDispatch(rideRequestId, newDrivers(rideRequestId));
+
+            int conflicts = race(rideRequestId);
+
+            assertThat(ridesCreated.get()).as("rides created for request %d", rideRequestId).isEqualTo(1);
+            assertThat(conflicts).as("conflicts for request %d", rideRequestId).isEqualTo(DRIVERS - 1);
+            assertThat(statuses.get(rideRequestId).get()).isEqualTo(RideRequestStatus.CONFIRMED);
+            assertThat(rideOfferService.activeDispatches()).isZero();
+        }
+    }
+
+    @Test
+    void claimsFromDifferentNodesAreSettledByTheConditionalUpdate() throws Exception {
+        for (long rideRequestId = 1; rideRequestId <= ROUNDS; rideRequestId++) {
+            conditionalUpdates.set(0);
+            statuses.put(rideRequestId, new AtomicReference<>(RideRequestStatus.PENDING));
+
+            int confirmed = raceAcrossNodes(rideRequestId);
+
+            assertThat(conditionalUpdates.get()).as("conditional updates for request %d", rideRequestId).isEqualTo(DRIVERS);
+            assertThat(confirmed).as("claims confirmed for request %d", rideRequestId).isEqualTo(1);
+            assertThat(statuses.get(rideRequestId).get()).isEqualTo(RideRequestStatus.CONFIRMED);
+        }
+    }
+
+    private List<Driver> newDrivers(long rideRequestId) {
+        List<Driver> offered = new ArrayList<>(DRIVERS);
+        for (int i = 0; i < DRIVERS; i++) {
+            long id = rideRequestId * 1000 + i;
+            User user = new User();
+            user.setId(id);
+            user.setEmail("driver" + id + "@test.com");
+            Driver driver = new Driver();
+            driver.setId(id);
+            driver.setUser(user);
+            driver.setAvailable(true);
+            drivers.put(id, driver);
+            offered.add(driver);
+        }
+        return offered;
+    }
+
+    // every driver accepts inside its own emulated transaction; nobody commits until all have tried
+    private int race(long rideRequestId) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch attempted = new CountDownLatch(DRIVERS);
+        List<Future<Boolean>> outcomes = new ArrayList<>(DRIVERS);
+
+        for (int i = 0; i < DRIVERS; i++) {
+            long driverId = rideRequestId * 1000 + i;
+            outcomes.add(executor.submit(() -> {
+                currentDriverId.set(driverId);
+                TransactionSynchronizationManager.initSynchronization();
+                boolean accepted = false;
+                try {
+                    start.await();
+                    try {
+                        driverService.acceptRide(rideRequestId);
+                        accepted = true;
+                    } catch (RuntimeConflictException e) {
+                        // lost the race
+                    }
+                    attempted.countDown();
+                    attempted.await();
+                } finally {
+                    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+                    TransactionSynchronizationManager.clearSynchronization();
+                    if (accepted) TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+                    TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                            accepted ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+                    currentDriverId.remove();
+                }
+                return accepted;
+            }));
+        }
+
+        start.countDown();
+        int conflicts = 0;
+        for (Future<Boolean> outcome : outcomes) {
+            if (!outcome.get(30, TimeUnit.SECONDS)) conflicts++;
+        }
+        return conflicts;
+    }
+
+    // every driver claims through its own RideRequestServiceImpl, as if each were on a different node, so no local
+    // claim map stands in front of the database and only compareAndSetStatus decides the winner
+    private int raceAcrossNodes(long rideRequestId) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> outcomes = new ArrayList<>(DRIVERS);
+
+        for (int i = 0; i < DRIVERS; i++) {
+            long driverId = rideRequestId * 1000 + i;
+            RideRequestServiceImpl node = new RideRequestServiceImpl(rideRequestRepository);
+            outcomes.add(executor.submit(() -> {
+                start.await();
+                try {
+                    node.claimRideRequest(rideRequestId, driverId);
+                    return true;
+                } catch (RuntimeConflictException e) {
+                    return false;
+                }
+            }));
+        }
+
+        start.countDown();
+        int confirmed = 0;
+        for (Future<Boolean> outcome : outcomes) {
+            if (outcome.get(30, TimeUnit.SECONDS)) confirmed++;
+        }
+        return confirmed;
+    }
+}
@@ -0,0 +1,137 @@
+package com.project.uber.Uber.services.implementations;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// plain main, not run by surefire: many concurrent payments into one hot wallet on a real PostgreSQL, comparing the
+// old read-then-save credit with the single-statement CREDIT_SQL. It reports throughput and how many credits were lost.
+// Usage: WalletContentionBenchmark jdbc:postgresql://host/db user password [threads] [paymentsPerThread]
+// Tables go into a throwaway schema that is dropped at the end.
+public class WalletContentionBenchmark {
+
+    private static final long USER_ID = 1;
+    private static final long AMOUNT_IN_MINOR_UNITS = 100;
+
+    // the old path: read the balance, add in Java, write it back, each in its own transaction like the JPA save did
+    private static final String READ_SQL = "SELECT balance_in_minor_units FROM wallet WHERE user_id = ?";
+    private static final String WRITE_SQL = "UPDATE wallet SET balance_in_minor_units = ? WHERE user_id = ?";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: WalletContentionBenchmark <jdbcUrl> <user> <password> [threads] [paymentsPerThread]");
+            return;
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        int paymentsPerThread = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+        String schema = "wallet_bench_" + Math.abs(ThreadLocalRandom.current().nextInt());
+
+        try (Connection admin = DriverManager.getConnection(args[0], args[1], args[2])) {
+            try (Statement statement = admin.createStatement()) {
+                statement.execute("CREATE SCHEMA " + schema);
+                statement.execute("CREATE TABLE " + schema + ".wallet (id bigserial PRIMARY KEY, user_id bigint UNIQUE, " +
+                        "balance_in_minor_units bigint NOT NULL DEFAULT 0)");
+            }
+            try {
+                System.out.printf("%d threads x %d payments of %d into one wallet%n", threads, paymentsPerThread, AMOUNT_IN_MINOR_UNITS);
+                System.out.printf("%-22s %12s %14s%n", "path", "payments/s", "lost credits");
+                run(args, schema, admin, "read then save", threads, paymentsPerThread, WalletContentionBenchmark::creditByReadAndSave);
+                run(args, schema, admin, "single UPDATE", threads, paymentsPerThread, WalletContentionBenchmark::creditInOneStatement);
+            } finally {
+                try (Statement statement = admin.createStatement()) {
+                    statement.execute("DROP SCHEMA " + schema + " CASCADE");
+                }
+            }
+        }
+    }
+
+    private static void run(String[] args, String schema, Connection admin, String name, int threads, int paymentsPerThread,
+                            Credit credit) throws Exception {
+        try (Statement statement = admin.createStatement()) {
+            statement.execute("DELETE FROM " + schema + ".wallet");
+            statement.execute("INSERT INTO " + schema + ".wallet (user_id, balance_in_minor_units) VALUES (" + USER_ID + ", 0)");
+        }
+
+        List<Connection> connections = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Connection connection = DriverManager.getConnection(args[0], args[1], args[2]);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET search_path TO " + schema);
+            }
+            connections.add(connection);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        List<Exception> failures = new ArrayList<>();
+        for (Connection connection : connections) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < paymentsPerThread; i++) credit.apply(connection);
+                } catch (Exception e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        for (Connection connection : connections) connection.close();
+        if (!failures.isEmpty()) throw failures.get(0);
+
+        long expected = (long) threads * paymentsPerThread * AMOUNT_IN_MINOR_UNITS;
+        long balance;
+        try (Statement statement = admin.createStatement();
+             ResultSet row = statement.executeQuery("SELECT balance_in_minor_units FROM " + schema + ".wallet")) {
+            row.next();
+            balance = row.getLong(1);
+        }
+        System.out.printf("%-22s %12.0f %14d%n", name, threads * paymentsPerThread / seconds,
+                (expected - balance) / AMOUNT_IN_MINOR_UNITS);
+    }
+
+    private static void creditByReadAndSave(Connection connection) throws SQLException {
+        long balance;
+        try (PreparedStatement read = connection.prepareStatement(READ_SQL)) {
+            read.setLong(1, USER_ID);
+            try (ResultSet row = read.executeQuery()) {
+                row.next();
+                balance = row.getLong(1);
+            }
+        }
+        try (PreparedStatement write = connection.prepareStatement(WRITE_SQL)) {
+            write.setLong(1, balance + AMOUNT_IN_MINOR_UNITS);
+            write.setLong(2, USER_ID);
+            write.executeUpdate();
+        }
+    }
+
+    private static void creditInOneStatement(Connection connection) throws SQLException {
+        try (PreparedStatement credit = connection.prepareStatement(WalletServiceImpl.CREDIT_SQL)) {
+            credit.setLong(1, AMOUNT_IN_MINOR_UNITS);
+            credit.setLong(2, USER_ID);
+            try (ResultSet row = credit.executeQuery()) {
+                row.next();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Credit {
+        void apply(Connection connection) throws SQLException;
+    }
+}
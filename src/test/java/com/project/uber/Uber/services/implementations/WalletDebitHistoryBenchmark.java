@@ -0,0 +1,153 @@
+package com.project.uber.Uber.services.implementations;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+// plain main, not run by surefire: wallet debit latency against the size of the wallet's ledger on a real PostgreSQL.
+// Usage: WalletDebitHistoryBenchmark jdbc:postgresql://host/db user password
+// Everything lives in temp tables on one connection, so it can be pointed at any database.
+public class WalletDebitHistoryBenchmark {
+
+    private static final int[] HISTORY_SIZES = {0, 100, 1_000, 10_000, 100_000};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+    private static final long AMOUNT_IN_MINOR_UNITS = 1;
+
+    // the old path: load the wallet and its whole transactions collection, save the new balance, insert the posting
+    private static final String LOAD_WALLET_SQL = "SELECT id, balance_in_minor_units FROM wallet WHERE user_id = ?";
+    private static final String LOAD_LEDGER_SQL = "SELECT * FROM wallet_transaction WHERE wallet_id = ?";
+    private static final String SAVE_BALANCE_SQL = "UPDATE wallet SET balance_in_minor_units = ? WHERE id = ?";
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 3) {
+            System.err.println("Usage: WalletDebitHistoryBenchmark <jdbcUrl> <user> <password>");
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            connection.setAutoCommit(false);
+            createTables(connection);
+            System.out.printf("%10s %18s %18s%n", "history", "load+save us/op", "append us/op");
+            for (int userId = 0; userId < HISTORY_SIZES.length; userId++) {
+                int history = HISTORY_SIZES[userId];
+                long walletId = seed(connection, userId, history);
+                double old = time(connection, userId, walletId, WalletDebitHistoryBenchmark::debitByLoadingLedger);
+                double append = time(connection, userId, walletId, WalletDebitHistoryBenchmark::debitByAppending);
+                System.out.printf("%10d %18.1f %18.1f%n", history, old, append);
+            }
+        }
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE wallet (id bigserial PRIMARY KEY, user_id bigint UNIQUE, " +
+                    "balance_in_minor_units bigint NOT NULL DEFAULT 0)");
+            statement.execute("CREATE TEMP TABLE wallet_transaction (id bigserial PRIMARY KEY, wallet_id bigint, " +
+                    "amount double precision, transaction_type varchar(16), transaction_method varchar(16), " +
+                    "ride_id bigint, transaction_id varchar(64), timestamp timestamp)");
+            statement.execute("CREATE INDEX ON wallet_transaction (wallet_id)");
+        }
+        connection.commit();
+    }
+
+    private static long seed(Connection connection, long userId, int history) throws SQLException {
+        long walletId;
+        try (PreparedStatement insertWallet = connection.prepareStatement(
+                "INSERT INTO wallet (user_id, balance_in_minor_units) VALUES (?, ?) RETURNING id")) {
+            insertWallet.setLong(1, userId);
+            insertWallet.setLong(2, Long.MAX_VALUE / 2);
+            try (ResultSet row = insertWallet.executeQuery()) {
+                row.next();
+                walletId = row.getLong(1);
+            }
+        }
+        try (PreparedStatement insertHistory = connection.prepareStatement(
+                "INSERT INTO wallet_transaction (wallet_id, amount, transaction_type, transaction_method, transaction_id, timestamp) " +
+                "SELECT ?, 1.0, 'DEBIT', 'RIDE', 'seed-' || g, now() FROM generate_series(1, ?) g")) {
+            insertHistory.setLong(1, walletId);
+            insertHistory.setInt(2, history);
+            insertHistory.executeUpdate();
+        }
+        connection.commit();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE wallet_transaction");
+        }
+        connection.commit();
+        return walletId;
+    }
+
+    private static double time(Connection connection, long userId, long walletId, Debit debit) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            debit.apply(connection, userId, walletId);
+            connection.commit();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            debit.apply(connection, userId, walletId);
+            connection.commit();
+        }
+        return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+    }
+
+    private static void debitByLoadingLedger(Connection connection, long userId, long walletId) throws SQLException {
+        long balance;
+        try (PreparedStatement load = connection.prepareStatement(LOAD_WALLET_SQL)) {
+            load.setLong(1, userId);
+            try (ResultSet row = load.executeQuery()) {
+                row.next();
+                balance = row.getLong(2);
+            }
+        }
+        try (PreparedStatement ledger = connection.prepareStatement(LOAD_LEDGER_SQL)) {
+            ledger.setLong(1, walletId);
+            try (ResultSet rows = ledger.executeQuery()) {
+                while (rows.next()) {
+                    rows.getLong(1);
+                }
+            }
+        }
+        try (PreparedStatement save = connection.prepareStatement(SAVE_BALANCE_SQL)) {
+            save.setLong(1, balance - AMOUNT_IN_MINOR_UNITS);
+            save.setLong(2, walletId);
+            save.executeUpdate();
+        }
+        insertPosting(connection, walletId);
+    }
+
+    private static void debitByAppending(Connection connection, long userId, long walletId) throws SQLException {
+        try (PreparedStatement debit = connection.prepareStatement(WalletServiceImpl.DEBIT_SQL)) {
+            debit.setLong(1, AMOUNT_IN_MINOR_UNITS);
+            debit.setLong(2, userId);
+            debit.setLong(3, AMOUNT_IN_MINOR_UNITS);
+            try (ResultSet row = debit.executeQuery()) {
+                row.next();
+            }
+        }
+        insertPosting(connection, walletId);
+    }
+
+    private static void insertPosting(Connection connection, long walletId) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(WalletTransactionServiceImpl.INSERT_SQL)) {
+            insert.setLong(1, walletId);
+            insert.setDouble(2, AMOUNT_IN_MINOR_UNITS / 100.0);
+            insert.setString(3, "DEBIT");
+            insert.setString(4, "RIDE");
+            insert.setNull(5, Types.BIGINT);
+            insert.setString(6, "bench");
+            insert.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+            insert.addBatch();
+            insert.executeBatch();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Debit {
+        void apply(Connection connection, long userId, long walletId) throws SQLException;
+    }
+}
@@ -0,0 +1,181 @@
+package com.project.uber.Uber.services.implementations;
+
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.entities.Wallet;
+import com.project.uber.Uber.entities.WalletTransaction;
+import com.project.uber.Uber.entities.enums.TransactionMethod;
+import com.project.uber.Uber.entities.enums.TransactionType;
+import com.project.uber.Uber.repositories.WalletRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// ledger postings are batched per transaction: one insert batch at commit, however many rows the wallet already has
+class WalletTransactionServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final WalletTransactionServiceImpl walletTransactionService = new WalletTransactionServiceImpl(jdbcTemplate, entityManager);
+    private final InMemoryTransactionManager transactionManager = new InMemoryTransactionManager();
+    private final TransactionTemplate required = new TransactionTemplate(transactionManager);
+    private final TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+
+    WalletTransactionServiceImplTest() {
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void postingsOfOneTransactionGoOutAsOneBatchAtCommit() {
+        required.executeWithoutResult(status -> {
+            walletTransactionService.appendWalletTransaction(posting(1L, TransactionType.DEBIT));
+            walletTransactionService.appendWalletTransaction(posting(2L, TransactionType.CREDIT));
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        });
+
+        var order = inOrder(entityManager, jdbcTemplate);
+        order.verify(entityManager).flush();
+        order.verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> batch) -> batch.size() == 2));
+    }
+
+    @Test
+    void requiresNewTransactionWritesOnlyItsOwnPostings() {
+        required.executeWithoutResult(outer -> {
+            walletTransactionService.appendWalletTransaction(posting(1L, TransactionType.DEBIT));
+            requiresNew.executeWithoutResult(inner ->
+                    walletTransactionService.appendWalletTransaction(posting(2L, TransactionType.CREDIT)));
+            // the inner commit flushed its own row only; the outer row is still buffered
+            assertThat(batchedWalletIds()).containsExactly(List.of(2L));
+        });
+
+        assertThat(batchedWalletIds()).containsExactly(List.of(2L), List.of(1L));
+    }
+
+    @Test
+    void rolledBackPostingsAreNeverWritten() {
+        required.executeWithoutResult(status -> {
+            walletTransactionService.appendWalletTransaction(posting(1L, TransactionType.DEBIT));
+            status.setRollbackOnly();
+        });
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void postingOutsideATransactionIsInsertedRightAway() {
+        walletTransactionService.appendWalletTransaction(posting(1L, TransactionType.DEBIT));
+
+        verify(jdbcTemplate).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void zeroAmountCreditIsNotPosted() {
+        WalletRepository walletRepository = mock(WalletRepository.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any()))
+                .thenReturn(List.<long[]>of(new long[]{1L, 500L}));
+        WalletServiceImpl walletService = new WalletServiceImpl(walletRepository, walletTransactionService, jdbcTemplate);
+        User user = new User();
+        user.setId(9L);
+
+        required.executeWithoutResult(status ->
+                walletService.addMoneyToWallet(user, 0, "txn", null, TransactionMethod.RIDE));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(walletRepository, never()).getReferenceById(any());
+    }
+
+    private List<List<Long>> batchedWalletIds() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), batches.capture());
+        return batches.getAllValues().stream()
+                .map(batch -> batch.stream().map(row -> (Long) row[0]).toList())
+                .toList();
+    }
+
+    private static WalletTransaction posting(Long walletId, TransactionType transactionType) {
+        Wallet wallet = new Wallet();
+        wallet.setId(walletId);
+        return new WalletTransaction
+                .WalletTransactionBuilder()
+                .wallet(wallet)
+                .amount(10.0)
+                .transactionType(transactionType)
+                .transactionMethod(TransactionMethod.RIDE)
+                .transactionId("txn-" + walletId)
+                .build();
+    }
+
+    // just enough of a transaction manager for Spring's own propagation, suspension and synchronization handling
+    private static final class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final Object key = new Object();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object[]{TransactionSynchronizationManager.getResource(key)};
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((Object[]) transaction)[0] != null;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            Object handle = new Object();
+            ((Object[]) transaction)[0] = handle;
+            TransactionSynchronizationManager.bindResource(key, handle);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            ((Object[]) transaction)[0] = null;
+            return TransactionSynchronizationManager.unbindResource(key);
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            TransactionSynchronizationManager.bindResource(key, suspendedResources);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+        }
+    }
+}
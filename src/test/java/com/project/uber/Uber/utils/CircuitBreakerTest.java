@@ -0,0 +1,35 @@
+package com.project.uber.Uber.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a half-open probe that never reports back must not leave the breaker rejecting every call forever
+class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION_IN_MILLIS = 50;
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(4, 2, 0.5, 1.0, 1_000, OPEN_DURATION_IN_MILLIS, 1);
+
+    @Test
+    void lostHalfOpenProbeReopensTheCircuitAfterACoolDown() throws InterruptedException {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(OPEN_DURATION_IN_MILLIS + 10);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        // the probe is in flight and never records an outcome
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        Thread.sleep(OPEN_DURATION_IN_MILLIS + 10);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(OPEN_DURATION_IN_MILLIS + 10);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        circuitBreaker.onSuccess(0);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
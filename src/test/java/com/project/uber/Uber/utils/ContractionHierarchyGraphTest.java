@@ -0,0 +1,126 @@
+package com.project.uber.Uber.utils;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+// the hierarchy must return exactly the plain Dijkstra distance on the uncontracted graph, or no route when there is none
+class ContractionHierarchyGraphTest {
+
+    private static final int SIDE = 40;
+    private static final int NODES = SIDE * SIDE;
+    private static final int QUERIES = 500;
+    private static final double MAX_SNAP_DISTANCE_IN_METERS = 50;
+
+    @TempDir
+    static Path directory;
+
+    private static double[] lon;
+    private static double[] lat;
+    // adjacency of the original graph in the builder's fixed-point units (tenths of a meter)
+    private static List<List<long[]>> edges;
+    private static Path graphFile;
+
+    @BeforeAll
+    static void buildGraph() throws Exception {
+        Random random = new Random(7);
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder();
+        lon = new double[NODES];
+        lat = new double[NODES];
+        edges = new ArrayList<>(NODES);
+        for (int node = 0; node < NODES; node++) {
+            lon[node] = 77.0 + (node % SIDE) * 0.001 + random.nextDouble() * 0.0003;
+            lat[node] = 28.0 + (node / SIDE) * 0.001 + random.nextDouble() * 0.0003;
+            builder.addNode(lon[node], lat[node]);
+            edges.add(new ArrayList<>());
+        }
+
+        // a grid with missing streets, detours and one-way streets, so some pairs are unreachable
+        for (int node = 0; node < NODES; node++) {
+            for (int neighbor : new int[]{node + 1, node + SIDE}) {
+                if (neighbor >= NODES || (neighbor == node + 1 && neighbor % SIDE == 0)) continue;
+                if (random.nextDouble() < 0.1) continue;
+                double distance = GeometryUtil.distanceInMeters(lon[node], lat[node], lon[neighbor], lat[neighbor])
+                        * (1 + random.nextDouble());
+                builder.addEdge(node, neighbor, distance, distance / 10);
+                edges.get(node).add(new long[]{neighbor, Math.round(distance * 10)});
+                if (random.nextDouble() < 0.2) continue;
+                builder.addEdge(neighbor, node, distance, distance / 10);
+                edges.get(neighbor).add(new long[]{node, Math.round(distance * 10)});
+            }
+        }
+
+        graphFile = directory.resolve("test.graph");
+        builder.writeTo(graphFile);
+    }
+
+    @Test
+    void memoryMappedGraphMatchesDijkstra() throws Exception {
+        assertMatchesDijkstra(ContractionHierarchyGraph.load(graphFile, true));
+    }
+
+    @Test
+    void heapGraphMatchesDijkstra() throws Exception {
+        assertMatchesDijkstra(ContractionHierarchyGraph.load(graphFile, false));
+    }
+
+    private static void assertMatchesDijkstra(ContractionHierarchyGraph graph) {
+        assertThat(graph.getNodeCount()).isEqualTo(NODES);
+        Random random = new Random(11);
+        int unreachable = 0;
+        for (int query = 0; query < QUERIES; query++) {
+            int source = random.nextInt(NODES);
+            int target = random.nextInt(NODES);
+            if (source == target) continue;
+
+            long expected = dijkstra(source, target);
+            ContractionHierarchyGraph.Route route =
+                    graph.route(lon[source], lat[source], lon[target], lat[target], MAX_SNAP_DISTANCE_IN_METERS);
+
+            if (expected == Long.MAX_VALUE) {
+                unreachable++;
+                assertThat(route).as("route %d -> %d", source, target).isNull();
+            } else {
+                // node coordinates are stored to 1e-6 degrees, so snapping adds a few centimetres at most
+                assertThat(route).as("route %d -> %d", source, target).isNotNull();
+                assertThat(route.getDistanceInMeters()).as("distance %d -> %d", source, target)
+                        .isCloseTo(expected / 10.0, offset(0.5));
+            }
+        }
+        // the one-way streets must actually leave some pairs without a route, or that branch is untested
+        assertThat(unreachable).isPositive();
+    }
+
+    private static long dijkstra(int source, int target) {
+        long[] distance = new long[NODES];
+        Arrays.fill(distance, Long.MAX_VALUE);
+        distance[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (node == target) return entry[0];
+            if (entry[0] > distance[node]) continue;
+            for (long[] edge : edges.get(node)) {
+                int next = (int) edge[0];
+                long candidate = entry[0] + edge[1];
+                if (candidate < distance[next]) {
+                    distance[next] = candidate;
+                    queue.add(new long[]{candidate, next});
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.uber.Uber.utils;
+
+import com.project.uber.Uber.dto.DriverDto;
+import com.project.uber.Uber.dto.DriverRideDto;
+import com.project.uber.Uber.dto.PointDto;
+import com.project.uber.Uber.dto.RideDto;
+import com.project.uber.Uber.entities.Driver;
+import com.project.uber.Uber.entities.Ride;
+import com.project.uber.Uber.entities.Rider;
+import com.project.uber.Uber.entities.User;
+import com.project.uber.Uber.entities.enums.PaymentMethod;
+import com.project.uber.Uber.entities.enums.RideStatus;
+import com.project.uber.Uber.entities.enums.Roles;
+import org.locationtech.jts.geom.Point;
+import org.modelmapper.ModelMapper;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// plain main, not run by surefire: compares DtoMapper against the ModelMapper setup it replaced, per-op time and allocation
+public class DtoMapperBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static Object sink;
+
+    public static void main(String[] args) {
+        ModelMapper modelMapper = modelMapper();
+
+        User user = new User(1L, "Ann", "ann@test.com", "password", new HashSet<>(Set.of(Roles.RIDER, Roles.DRIVER)));
+        Rider rider = new Rider.RiderBuilder().setId(2L).setUser(user).setRating(4.5).build();
+        Driver driver = new Driver.DriverBuilder().id(3L).user(user).rating(4.8).available(true).vehicleId(9L).build();
+        Ride ride = new Ride(4L, GeometryUtil.createPoint(new PointDto(new double[]{77.1, 28.6})),
+                GeometryUtil.createPoint(new PointDto(new double[]{77.2, 28.7})), LocalDateTime.now(), rider, driver,
+                PaymentMethod.CASH, RideStatus.ONGOING, 150.0, LocalDateTime.now(), null, "1234");
+
+        run("ModelMapper Ride -> RideDto", () -> modelMapper.map(ride, RideDto.class));
+        run("DtoMapper   Ride -> RideDto", () -> DtoMapper.toRideDto(ride));
+        run("ModelMapper Ride -> DriverRideDto", () -> modelMapper.map(ride, DriverRideDto.class));
+        run("DtoMapper   Ride -> DriverRideDto", () -> DtoMapper.toDriverRideDto(ride));
+        run("ModelMapper Driver -> DriverDto", () -> modelMapper.map(driver, DriverDto.class));
+        run("DtoMapper   Driver -> DriverDto", () -> DtoMapper.toDriverDto(driver));
+    }
+
+    // same configuration the removed MapperConfig bean used
+    private static ModelMapper modelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.typeMap(PointDto.class, Point.class).setConverter(context -> GeometryUtil.createPoint(context.getSource()));
+        modelMapper.typeMap(Point.class, PointDto.class).setConverter(context -> GeometryUtil.createPointDto(context.getSource()));
+        return modelMapper;
+    }
+
+    private static void run(String name, Supplier<Object> mapping) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) sink = mapping.get();
+
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink = mapping.get();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        System.out.printf("%-36s %10.1f ns/op %8d B/op%n", name, elapsed / (double) ITERATIONS, allocated / ITERATIONS);
+    }
+}